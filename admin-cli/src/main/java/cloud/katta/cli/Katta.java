@@ -6,6 +6,7 @@ package cloud.katta.cli;
 
 import cloud.katta.cli.commands.Completion;
 import cloud.katta.cli.commands.hub.storageprofile.StorageProfile;
+import cloud.katta.cli.commands.hub.vault.Vault;
 import cloud.katta.cli.commands.login.AuthorizationCodeFlow;
 import cloud.katta.cli.commands.storage.Setup;
 import picocli.CommandLine;
@@ -17,6 +18,7 @@ import picocli.CommandLine;
                 Setup.class,
                 // hub
                 StorageProfile.class,
+                Vault.class,
                 // misc.
                 AuthorizationCodeFlow.class,
                 Completion.class,
@@ -0,0 +1,15 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.cli.commands.hub.vault;
+
+import picocli.CommandLine;
+
+@CommandLine.Command(name = "vault", subcommands = {
+        VaultCreateBulk.class,
+        CommandLine.HelpCommand.class
+},
+        description = "Manage Vaults", mixinStandardHelpOptions = true)
+public class Vault {
+}
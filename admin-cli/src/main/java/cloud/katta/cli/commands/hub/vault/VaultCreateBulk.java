@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.cli.commands.hub.vault;
+
+import ch.cyberduck.core.Credentials;
+import ch.cyberduck.core.DisabledHostKeyCallback;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostParser;
+import ch.cyberduck.core.LoginOptions;
+import ch.cyberduck.core.OAuthTokens;
+import ch.cyberduck.core.Protocol;
+import ch.cyberduck.core.ProtocolFactory;
+import ch.cyberduck.core.exception.LoginCanceledException;
+import ch.cyberduck.core.preferences.MemoryPreferences;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.proxy.ProxyFactory;
+import ch.cyberduck.core.serviceloader.AnnotationAutoServiceLoader;
+import ch.cyberduck.core.ssl.DefaultX509KeyManager;
+import ch.cyberduck.core.ssl.DefaultX509TrustManager;
+import ch.cyberduck.core.threading.CancelCallback;
+import ch.cyberduck.core.vault.VaultProvider;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cloud.katta.cli.commands.AbstractAuthorizationCode;
+import cloud.katta.core.DeviceSetupCallback;
+import cloud.katta.protocols.hub.HubBulkVaultJournal;
+import cloud.katta.protocols.hub.HubBulkVaultService;
+import cloud.katta.protocols.hub.HubSession;
+import cloud.katta.protocols.hub.HubUVFVault;
+import cloud.katta.protocols.hub.HubUVFVaultProvider;
+import cloud.katta.protocols.hub.HubVaultRegistry;
+import cloud.katta.workflows.exceptions.AccessException;
+import com.nimbusds.jwt.SignedJWT;
+import picocli.CommandLine;
+
+/**
+ * Create vaults listed in a manifest. Vaults already created according to the journal are skipped when run again.
+ */
+@CommandLine.Command(name = "create-bulk",
+        description = "Create vaults from CSV or JSON manifest.",
+        showDefaultValues = true,
+        mixinStandardHelpOptions = true)
+public class VaultCreateBulk extends AbstractAuthorizationCode implements Callable<Integer> {
+
+    @CommandLine.Option(names = {"--manifest"}, description = "CSV or JSON file with columns name, storageProfile and optional region.", required = true)
+    Path manifest;
+
+    @CommandLine.Option(names = {"--journal"}, description = "Progress journal to resume after partial failure. Defaults to manifest file name with .journal suffix.", required = false)
+    Path journal;
+
+    @CommandLine.Option(names = {"--concurrency"}, description = "Maximum number of vaults created concurrently.", required = false, defaultValue = "4")
+    int concurrency;
+
+    @CommandLine.Option(names = {"--accountKey"}, description = "Account key to set up this device if not yet known to the hub.", required = false)
+    String accountKey;
+
+    @CommandLine.Option(names = {"--deviceName"}, description = "Device name when setting up this device.", required = false, defaultValue = "Katta Admin CLI")
+    String deviceName;
+
+    @CommandLine.Option(names = {"--accessKeyId"}, description = "Access Key ID for storage profiles with static credentials.", required = false)
+    String accessKeyId;
+
+    @CommandLine.Option(names = {"--secretAccessKey"}, description = "Secret Access Key for storage profiles with static credentials.", required = false)
+    String secretAccessKey;
+
+    @Override
+    public Integer call() throws Exception {
+        final List<VaultManifest.Entry> entries = VaultManifest.parse(manifest);
+        final HubSession session = this.connect(this.login());
+        try {
+            final HubBulkVaultService service = new HubBulkVaultService(session,
+                    (HubUVFVaultProvider) session.getFeature(VaultProvider.class),
+                    new HubBulkVaultJournal(null == journal ? Paths.get(manifest + ".journal") : journal), concurrency);
+            final AtomicInteger failed = new AtomicInteger();
+            service.create(entries.stream().map(entry -> new HubBulkVaultService.Request(entry.name(), entry.storageProfile(), entry.region())).toList(),
+                    result -> {
+                        if(HubBulkVaultService.Result.Status.failed == result.getStatus()) {
+                            failed.incrementAndGet();
+                            System.err.printf("%s %s %s: %s%n", result.getStatus(), result.getRequest().getName(), result.getVaultId(),
+                                    result.getFailure().getDetail());
+                        }
+                        else {
+                            System.out.printf("%s %s %s%n", result.getStatus(), result.getRequest().getName(), result.getVaultId());
+                        }
+                    });
+            if(failed.get() > 0) {
+                System.err.printf("Failed to create %d of %d vaults. Run again to retry.%n", failed.get(), entries.size());
+                return 1;
+            }
+            return 0;
+        }
+        finally {
+            session.close();
+        }
+    }
+
+    private HubSession connect(final String accessToken) throws Exception {
+        final Preferences preferences = new MemoryPreferences();
+        PreferencesFactory.set(preferences);
+        preferences.setProperty("factory.vaultregistry.class", HubVaultRegistry.class.getName());
+        preferences.setProperty("factory.vault.class", HubUVFVault.class.getName());
+        preferences.setProperty("cryptomator.vault.config.filename", "vault.uvf");
+        preferences.setProperty("cryptomator.vault.autodetect", false);
+        preferences.setProperty("oauth.handler.scheme", "katta");
+        final ProtocolFactory factory = ProtocolFactory.get();
+        for(Protocol p : new AnnotationAutoServiceLoader<Protocol>().load(Protocol.class)) {
+            factory.register(p);
+        }
+        final Host host = new HostParser(factory, factory.forName("hub")).get(hubUrl);
+        final Date expiry = SignedJWT.parse(accessToken).getJWTClaimsSet().getExpirationTime();
+        host.getCredentials().setOauth(new OAuthTokens(accessToken, null, null == expiry ? Long.MAX_VALUE : expiry.getTime()));
+        final HubSession session = new HubSession(host, new DefaultX509TrustManager(), new DefaultX509KeyManager());
+        final DisabledLoginCallback prompt = new DisabledLoginCallback() {
+            @Override
+            public Credentials prompt(final Host bookmark, final String username, final String title, final String reason, final LoginOptions options) throws LoginCanceledException {
+                if(null == accessKeyId || null == secretAccessKey) {
+                    System.err.println("Missing --accessKeyId and --secretAccessKey for storage profile with static credentials");
+                    throw new LoginCanceledException();
+                }
+                return new Credentials(accessKeyId, secretAccessKey);
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public <T> T getFeature(final Class<T> type) {
+                if(DeviceSetupCallback.class == type) {
+                    return (T) new DeviceSetupCallback() {
+                        @Override
+                        public AccountKeyAndDeviceName displayAccountKeyAndAskDeviceName(final Host bookmark, final String generated) {
+                            System.err.printf("Generated account key %s. Keep it in a safe place.%n", generated);
+                            return new AccountKeyAndDeviceName(generated, deviceName);
+                        }
+
+                        @Override
+                        public AccountKeyAndDeviceName askForAccountKeyAndDeviceName(final Host bookmark) throws AccessException {
+                            if(null == accountKey) {
+                                throw new AccessException("Missing --accountKey to set up device");
+                            }
+                            return new AccountKeyAndDeviceName(accountKey, deviceName);
+                        }
+                    };
+                }
+                return null;
+            }
+        };
+        session.open(ProxyFactory.get(), new DisabledHostKeyCallback(), prompt, CancelCallback.noop);
+        session.login(prompt, CancelCallback.noop);
+        return session;
+    }
+}
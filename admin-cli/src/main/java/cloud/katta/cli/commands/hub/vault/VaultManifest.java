@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.cli.commands.hub.vault;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Vaults to create read from a JSON array of objects or a CSV file with header row. Both formats use the fields
+ * <code>name</code>, <code>storageProfile</code> (storage profile ID) and optional <code>region</code>.
+ * <p>
+ * JSON:
+ * <pre>
+ * [{"name": "Project A", "storageProfile": "c7b0a8f4-...", "region": "eu-west-1"}]
+ * </pre>
+ * CSV without quoting. Empty lines and lines starting with <code>#</code> are ignored:
+ * <pre>
+ * name,storageProfile,region
+ * Project A,c7b0a8f4-...,eu-west-1
+ * </pre>
+ */
+public final class VaultManifest {
+
+    public record Entry(String name, UUID storageProfile, String region) {
+    }
+
+    private VaultManifest() {
+    }
+
+    public static List<Entry> parse(final Path file) throws IOException {
+        final String content = Files.readString(file, StandardCharsets.UTF_8);
+        if(StringUtils.endsWithIgnoreCase(file.getFileName().toString(), ".json")) {
+            return parseJson(content);
+        }
+        return parseCsv(content);
+    }
+
+    static List<Entry> parseJson(final String content) throws IOException {
+        final JsonNode root = new ObjectMapper().readTree(content);
+        if(!root.isArray()) {
+            throw new IOException("Manifest must be a JSON array");
+        }
+        final List<Entry> entries = new ArrayList<>();
+        for(JsonNode node : root) {
+            entries.add(entry(text(node, "name"), text(node, "storageProfile"), text(node, "region"), entries.size() + 1));
+        }
+        return entries;
+    }
+
+    static List<Entry> parseCsv(final String content) throws IOException {
+        final List<Entry> entries = new ArrayList<>();
+        List<String> header = null;
+        int line = 0;
+        for(String row : content.split("\\R")) {
+            line++;
+            if(StringUtils.isBlank(row) || row.trim().startsWith("#")) {
+                continue;
+            }
+            final List<String> columns = Arrays.stream(row.split(",", -1)).map(String::trim).toList();
+            if(null == header) {
+                header = columns;
+                if(!header.contains("name") || !header.contains("storageProfile")) {
+                    throw new IOException("Missing columns name and storageProfile in header of manifest");
+                }
+                continue;
+            }
+            entries.add(entry(column(header, columns, "name"), column(header, columns, "storageProfile"),
+                    column(header, columns, "region"), line));
+        }
+        return entries;
+    }
+
+    private static Entry entry(final String name, final String storageProfile, final String region, final int line) throws IOException {
+        if(StringUtils.isBlank(name)) {
+            throw new IOException("Missing vault name in entry %d of manifest".formatted(line));
+        }
+        if(StringUtils.isBlank(storageProfile)) {
+            throw new IOException("Missing storage profile in entry %d of manifest".formatted(line));
+        }
+        try {
+            return new Entry(name, UUID.fromString(storageProfile), StringUtils.isBlank(region) ? null : region);
+        }
+        catch(IllegalArgumentException e) {
+            throw new IOException("Invalid storage profile ID %s in entry %d of manifest".formatted(storageProfile, line), e);
+        }
+    }
+
+    private static String text(final JsonNode node, final String field) {
+        final JsonNode value = node.get(field);
+        return null == value || value.isNull() ? null : value.asText();
+    }
+
+    private static String column(final List<String> header, final List<String> columns, final String name) {
+        final int index = header.indexOf(name);
+        return index < 0 || index >= columns.size() ? null : columns.get(index);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.cli.commands.hub.vault;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VaultManifestTest {
+
+    @Test
+    public void testParseCsv() throws IOException {
+        final UUID profile = UUID.randomUUID();
+        final List<VaultManifest.Entry> entries = VaultManifest.parseCsv("""
+                # projects
+                name,storageProfile,region
+                Project A,%s,eu-west-1
+
+                Project B,%s,
+                """.formatted(profile, profile));
+        assertEquals(2, entries.size());
+        assertEquals(new VaultManifest.Entry("Project A", profile, "eu-west-1"), entries.get(0));
+        assertEquals(new VaultManifest.Entry("Project B", profile, null), entries.get(1));
+    }
+
+    @Test
+    public void testParseJson() throws IOException {
+        final UUID profile = UUID.randomUUID();
+        final List<VaultManifest.Entry> entries = VaultManifest.parseJson("""
+                [{"name": "Project A", "storageProfile": "%s", "region": "eu-west-1"}, {"name": "Project B", "storageProfile": "%s"}]
+                """.formatted(profile, profile));
+        assertEquals(2, entries.size());
+        assertEquals(new VaultManifest.Entry("Project A", profile, "eu-west-1"), entries.get(0));
+        assertEquals(new VaultManifest.Entry("Project B", profile, null), entries.get(1));
+    }
+
+    @Test
+    public void testInvalidStorageProfile() {
+        assertThrows(IOException.class, () -> VaultManifest.parseCsv("""
+                name,storageProfile
+                Project A,invalid
+                """));
+        assertThrows(IOException.class, () -> VaultManifest.parseJson("{}"));
+    }
+}
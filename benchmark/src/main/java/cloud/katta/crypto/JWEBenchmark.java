@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.crypto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import cloud.katta.crypto.uvf.HubVaultKeys;
+import cloud.katta.crypto.uvf.UVFAccessTokenPayload;
+import com.nimbusds.jose.Payload;
+
+/**
+ * Encryption and decryption of vault access tokens with ECDH-ES for the user key as done when granting access and
+ * unlocking a vault, and of payloads wrapped with A256KW.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JWEBenchmark {
+
+    private UserKeys userKeys;
+    private UVFAccessTokenPayload accessToken;
+    private String ecdhEs;
+    private byte[] kek;
+    private String a256kw;
+
+    @Setup
+    public void setup() throws Exception {
+        userKeys = UserKeys.create();
+        accessToken = new UVFAccessTokenPayload(HubVaultKeys.create().memberKey());
+        ecdhEs = accessToken.encryptForUser(userKeys.ecdhKeyPair().getPublic());
+        kek = new byte[32];
+        new SecureRandom().nextBytes(kek);
+        a256kw = JWE.a256kwEncrypt(accessToken, HubVaultKeys.KID_MEMBER_KEY, kek);
+    }
+
+    @Benchmark
+    public String ecdhEsEncrypt() throws Exception {
+        return accessToken.encryptForUser(userKeys.ecdhKeyPair().getPublic());
+    }
+
+    @Benchmark
+    public UVFAccessTokenPayload ecdhEsDecrypt() throws Exception {
+        return userKeys.decryptAccessToken(ecdhEs);
+    }
+
+    @Benchmark
+    public String a256kwEncrypt() throws Exception {
+        return JWE.a256kwEncrypt(accessToken, HubVaultKeys.KID_MEMBER_KEY, kek);
+    }
+
+    @Benchmark
+    public Payload a256kwDecrypt() throws Exception {
+        return JWE.decryptA256kw(a256kw, kek);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.crypto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.util.Base64URL;
+
+/**
+ * ES384 signature and verification as used for signatures in the web of trust.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JWTBenchmark {
+
+    private UserKeys userKeys;
+    private JWSHeader header;
+    private Base64URL payload;
+    private String signed;
+
+    @Setup
+    public void setup() throws Exception {
+        userKeys = UserKeys.create();
+        header = new JWSHeader.Builder(JWSAlgorithm.ES384).keyID(UUID.randomUUID().toString()).build();
+        payload = Base64URL.encode(String.format("{\"id\":\"%s\",\"ecdhPublicKey\":\"%s\",\"ecdsaPublicKey\":\"%s\"}",
+                UUID.randomUUID(), userKeys.encodedEcdhPublicKey(), userKeys.encodedEcdsaPublicKey()).getBytes(StandardCharsets.UTF_8));
+        signed = JWT.es384sign(header, payload, userKeys.ecdsaKeyPair().getPrivate());
+    }
+
+    @Benchmark
+    public String es384sign() throws Exception {
+        return JWT.es384sign(header, payload, userKeys.ecdsaKeyPair().getPrivate());
+    }
+
+    @Benchmark
+    public boolean es384verify() throws Exception {
+        return JWT.es384verify(signed, userKeys.ecdsaKeyPair().getPublic());
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.crypto;
+
+import org.cryptomator.cryptolib.common.ECKeyPair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of base64 encoded SPKI public keys and PKCS#8 private keys as done for every user listed when granting
+ * access or verifying trusts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class KeyHelperBenchmark {
+
+    private String publicKey;
+    private String privateKey;
+
+    @Setup
+    public void setup() {
+        final ECKeyPair keyPair = UserKeys.create().ecdhKeyPair();
+        publicKey = KeyHelper.encodePublicKey(keyPair.getPublic());
+        privateKey = KeyHelper.encodePrivateKey(keyPair.getPrivate());
+    }
+
+    @Benchmark
+    public ECPublicKey decodePublicKey() throws Exception {
+        return KeyHelper.decodePublicKey(publicKey);
+    }
+
+    @Benchmark
+    public ECPrivateKey decodePrivateKey() throws Exception {
+        return KeyHelper.decodePrivateKey(privateKey);
+    }
+
+    @Benchmark
+    public ECKeyPair decodeKeyPair() throws Exception {
+        return KeyHelper.decodeKeyPair(publicKey, privateKey);
+    }
+}
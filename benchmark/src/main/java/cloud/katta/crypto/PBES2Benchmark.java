@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.crypto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encryption of user keys with the account key using PBES2 at the configured 1,000,000 iterations as done on first
+ * login and recovery with the account key. Each invocation takes in the order of seconds hence fewer iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PBES2Benchmark {
+
+    private UserKeys userKeys;
+    private String accountKey;
+    private String encrypted;
+
+    @Setup
+    public void setup() throws Exception {
+        userKeys = UserKeys.create();
+        accountKey = "WORD1 WORD2 WORD3 WORD4 WORD5 WORD6 WORD7 WORD8 WORD9 WORD10 WORD11 WORD12";
+        encrypted = userKeys.encryptWithAccountKey(accountKey);
+    }
+
+    @Benchmark
+    public String encryptWithAccountKey() throws Exception {
+        return userKeys.encryptWithAccountKey(accountKey);
+    }
+
+    @Benchmark
+    public UserKeys recoverWithAccountKey() throws Exception {
+        return UserKeys.recoverWithAccountKey(encrypted, accountKey,
+                userKeys.encodedEcdhPublicKey(), userKeys.encodedEcdsaPublicKey());
+    }
+}
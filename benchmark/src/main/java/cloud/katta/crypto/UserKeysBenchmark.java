@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.crypto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encryption of user keys with ECDH-ES for a device key as done when setting up a device and decryption when
+ * retrieving user keys on login.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UserKeysBenchmark {
+
+    private UserKeys userKeys;
+    private DeviceKeys deviceKeys;
+    private String encrypted;
+
+    @Setup
+    public void setup() throws Exception {
+        userKeys = UserKeys.create();
+        deviceKeys = DeviceKeys.create();
+        encrypted = userKeys.encryptForDevice(deviceKeys.getEcKeyPair().getPublic());
+    }
+
+    @Benchmark
+    public String encryptForDevice() throws Exception {
+        return userKeys.encryptForDevice(deviceKeys.getEcKeyPair().getPublic());
+    }
+
+    @Benchmark
+    public UserKeys decryptOnDevice() throws Exception {
+        return UserKeys.decryptOnDevice(encrypted, deviceKeys.getEcKeyPair().getPrivate(),
+                userKeys.encodedEcdhPublicKey(), userKeys.encodedEcdsaPublicKey());
+    }
+
+    @Benchmark
+    public UserKeys create() {
+        return UserKeys.create();
+    }
+}
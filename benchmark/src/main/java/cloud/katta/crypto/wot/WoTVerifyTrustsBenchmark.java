@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.crypto.wot;
+
+import org.cryptomator.cryptolib.common.P384KeyPair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.interfaces.ECPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import cloud.katta.client.model.TrustedUserDto;
+import cloud.katta.client.model.UserDto;
+import cloud.katta.crypto.UserKeys;
+
+import static cloud.katta.crypto.KeyHelper.encodePublicKey;
+
+/**
+ * Verification of all trusts for a synthetic organisation where the current user signed a number of team leads who
+ * each signed the members of their team. Compares verification with and without previously verified signatures and
+ * parallel with single threaded verification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WoTVerifyTrustsBenchmark {
+
+    @Param({"5000"})
+    public int users;
+
+    @Param({"50"})
+    public int teams;
+
+    private ECPublicKey signerPublicKey;
+    private List<TrustedUserDto> trusts;
+    private List<UserDto> trustees;
+
+    private final ForkJoinPool single = new ForkJoinPool(1);
+
+    @Setup
+    public void setup() throws Exception {
+        final UserKeys alice = UserKeys.create();
+        final String aliceId = UUID.randomUUID().toString();
+        signerPublicKey = alice.ecdsaKeyPair().getPublic();
+        // ECDH key is only part of the signed payload
+        final String ecdhPublicKey = encodePublicKey(P384KeyPair.generate().getPublic());
+        trusts = new ArrayList<>(users);
+        trustees = new ArrayList<>(users);
+        final int members = users / teams - 1;
+        for(int t = 0; t < teams; t++) {
+            final P384KeyPair leadKeys = P384KeyPair.generate();
+            final UserDto lead = new UserDto().id(UUID.randomUUID().toString())
+                    .ecdhPublicKey(ecdhPublicKey).ecdsaPublicKey(encodePublicKey(leadKeys.getPublic()));
+            final String leadSignature = WoT.sign(alice.ecdsaKeyPair().getPrivate(), aliceId, lead);
+            this.add(lead, Collections.singletonList(leadSignature));
+            for(int m = 0; m < members; m++) {
+                final UserDto member = new UserDto().id(UUID.randomUUID().toString())
+                        .ecdhPublicKey(ecdhPublicKey).ecdsaPublicKey(encodePublicKey(P384KeyPair.generate().getPublic()));
+                this.add(member, Arrays.asList(leadSignature, WoT.sign(leadKeys.getPrivate(), lead.getId(), member)));
+            }
+        }
+        // Populate verified signatures
+        WoT.verifyTrusts(trusts, trustees, signerPublicKey);
+    }
+
+    private void add(final UserDto user, final List<String> chain) {
+        final TrustedUserDto trust = new TrustedUserDto();
+        trust.setTrustedUserId(user.getId());
+        trust.setSignatureChain(chain);
+        trusts.add(trust);
+        trustees.add(user);
+    }
+
+    @Benchmark
+    public Map<TrustedUserDto, Integer> verifyTrustsCold() {
+        VerifiedSignatures.clear();
+        return WoT.verifyTrusts(trusts, trustees, signerPublicKey);
+    }
+
+    @Benchmark
+    public Map<TrustedUserDto, Integer> verifyTrustsVerified() {
+        return WoT.verifyTrusts(trusts, trustees, signerPublicKey);
+    }
+
+    @Benchmark
+    public Map<TrustedUserDto, Integer> verifyTrustsColdSingleThread() {
+        VerifiedSignatures.clear();
+        return WoT.verifyTrusts(trusts, trustees, signerPublicKey, single);
+    }
+
+    @TearDown
+    public void shutdown() {
+        single.shutdown();
+    }
+}
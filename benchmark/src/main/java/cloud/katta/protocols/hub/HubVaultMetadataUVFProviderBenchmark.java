@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import cloud.katta.crypto.uvf.HubVaultKeys;
+import cloud.katta.crypto.uvf.UVFMetadataPayload;
+import cloud.katta.crypto.uvf.VaultMetadataStorageDto;
+import com.nimbusds.jose.JWEObjectJSON;
+
+/**
+ * Encryption of UVF vault metadata for member and recovery key as done when creating a vault and decryption with the
+ * member key as done when unlocking a vault.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HubVaultMetadataUVFProviderBenchmark {
+
+    private UVFMetadataPayload payload;
+    private HubVaultKeys vaultKeys;
+    private UUID vaultId;
+    private String encrypted;
+
+    @Setup
+    public void setup() throws Exception {
+        payload = UVFMetadataPayload.create()
+                .withStorage(new VaultMetadataStorageDto()
+                        .provider(UUID.randomUUID().toString())
+                        .bucket("bucket")
+                        .region("eu-central-1")
+                        .nickname("benchmark"));
+        vaultKeys = HubVaultKeys.create();
+        vaultId = UUID.randomUUID();
+        encrypted = this.encrypt();
+    }
+
+    @Benchmark
+    public String encrypt() throws Exception {
+        return new HubVaultMetadataUVFProvider(payload, "https://example.com/api", vaultId, vaultKeys.serialize()).encrypt();
+    }
+
+    @Benchmark
+    public UVFMetadataPayload decrypt() throws Exception {
+        return new HubVaultMetadataUVFProvider(JWEObjectJSON.parse(encrypted), vaultKeys).getPayload();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.features.Vault;
+import ch.cyberduck.core.vault.DefaultVaultRegistry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolve a file to its vault as done for every feature request on the Hub session. Lookup cost in the indexed
+ * registry is expected to stay flat with the number of vaults registered compared to the scanning default registry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HubVaultRegistryBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int vaults;
+
+    private HubVaultRegistry indexed;
+    private DefaultVaultRegistry scanning;
+
+    /**
+     * File in last vault registered
+     */
+    private Path file;
+
+    @Setup
+    public void setup() {
+        indexed = new HubVaultRegistry(new DisabledPasswordCallback());
+        scanning = new DefaultVaultRegistry(new DisabledPasswordCallback());
+        Path bucket = null;
+        for(int i = 0; i < vaults; i++) {
+            bucket = new Path("katta-" + UUID.randomUUID(), EnumSet.of(Path.Type.volume, Path.Type.directory));
+            final HubUVFVault vault = new HubUVFVault(null, bucket);
+            indexed.add(vault);
+            scanning.add(vault);
+        }
+        file = new Path(new Path(bucket, "d", EnumSet.of(Path.Type.directory)), "f", EnumSet.of(Path.Type.file));
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return indexed.contains(file);
+    }
+
+    @Benchmark
+    public Vault find() {
+        return indexed.find(null, file, false);
+    }
+
+    @Benchmark
+    public boolean containsScanning() {
+        return scanning.contains(file);
+    }
+}
@@ -11,7 +11,9 @@ import ch.cyberduck.core.PreferencesUseragentProvider;
 import ch.cyberduck.core.Scheme;
 import ch.cyberduck.core.jersey.HttpComponentsProvider;
 
+import org.apache.http.HttpStatus;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.logging.log4j.LogManager;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.jackson.JacksonFeature;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
@@ -23,18 +25,33 @@ import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.GenericType;
 import java.net.URI;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
 
+import cloud.katta.client.metrics.HubExchange;
+import cloud.katta.client.metrics.HubMetricsFactory;
+
 
 public class HubApiClient extends ApiClient {
+    private static final org.apache.logging.log4j.Logger log = LogManager.getLogger(HubApiClient.class);
 
     static {
         Logger.getLogger("org.glassfish.jersey.client.ClientExecutorProvidersConfigurator").setLevel(java.util.logging.Level.SEVERE);
     }
 
+    /**
+     * Cache for responses of selected operations. Null if disabled
+     */
+    private final HubResponseCache cache;
+
     public HubApiClient(final Host host, final CloseableHttpClient client) {
+        this(host, client, null);
+    }
+
+    public HubApiClient(final Host host, final CloseableHttpClient client, final HubResponseCache cache) {
+        this.cache = cache;
         final Scheme scheme = host.getProtocol().getScheme();
         final int port = host.getPort();
         final String hostname = host.getHostname();
@@ -63,6 +80,70 @@ public class HubApiClient extends ApiClient {
     public <T> ApiResponse<T> invokeAPI(final String operation, final String path, final String method, final List<Pair> queryParams, final Object body,
                                         final Map<String, String> headerParams, final Map<String, String> cookieParams, final Map<String, Object> formParams, final String accept,
                                         final String contentType, final String[] authNames, final GenericType<T> returnType, final boolean isBodyNullable) throws ApiException {
+        final HubExchange exchange = HubExchange.begin(operation, method);
+        try {
+            final ApiResponse<T> response;
+            if(cache != null && cache.isCached(operation, method)) {
+                response = this.invokeCachedAPI(operation, path, method, queryParams, body, headerParams, cookieParams, formParams, accept, contentType, authNames,
+                        returnType, isBodyNullable);
+            }
+            else {
+                response = this.invokeUncachedAPI(operation, path, method, queryParams, body, headerParams, cookieParams, formParams, accept, contentType, authNames,
+                        returnType, isBodyNullable);
+            }
+            exchange.withStatus(response.getStatusCode());
+            return response;
+        }
+        catch(ApiException e) {
+            exchange.withStatus(e.getCode());
+            throw e;
+        }
+        finally {
+            HubMetricsFactory.get().record(exchange.end());
+        }
+    }
+
+    /**
+     * Serve fresh response from cache or send conditional request with validators of cached response
+     */
+    @SuppressWarnings("unchecked")
+    private <T> ApiResponse<T> invokeCachedAPI(final String operation, final String path, final String method, final List<Pair> queryParams, final Object body,
+                                               final Map<String, String> headerParams, final Map<String, String> cookieParams, final Map<String, Object> formParams, final String accept,
+                                               final String contentType, final String[] authNames, final GenericType<T> returnType, final boolean isBodyNullable) throws ApiException {
+        final String key = HubResponseCache.key(path, queryParams, accept);
+        final HubResponseCache.Entry cached = cache.get(key);
+        final Map<String, String> headers = new HashMap<>(headerParams);
+        if(cached != null) {
+            if(cached.isFresh()) {
+                log.debug("Return fresh cached response for {}", operation);
+                return (ApiResponse<T>) cached.getResponse();
+            }
+            if(cached.getETag() != null) {
+                headers.put("If-None-Match", cached.getETag());
+            }
+            if(cached.getLastModified() != null) {
+                headers.put("If-Modified-Since", cached.getLastModified());
+            }
+        }
+        try {
+            final ApiResponse<T> response = this.invokeUncachedAPI(operation, path, method, queryParams, body, headers, cookieParams, formParams, accept, contentType,
+                    authNames, returnType, isBodyNullable);
+            cache.put(key, response);
+            return response;
+        }
+        catch(ApiException e) {
+            if(cached != null && e.getCode() == HttpStatus.SC_NOT_MODIFIED) {
+                log.debug("Return revalidated cached response for {}", operation);
+                return (ApiResponse<T>) cache.revalidated(key, cached, e.getResponseHeaders()).getResponse();
+            }
+            cache.invalidate(key);
+            throw e;
+        }
+    }
+
+    <T> ApiResponse<T> invokeUncachedAPI(final String operation, final String path, final String method, final List<Pair> queryParams, final Object body,
+                                                 final Map<String, String> headerParams, final Map<String, String> cookieParams, final Map<String, Object> formParams, final String accept,
+                                                 final String contentType, final String[] authNames, final GenericType<T> returnType, final boolean isBodyNullable) throws ApiException {
         try {
             return super.invokeAPI(operation, path, method, queryParams, body, headerParams, cookieParams, formParams, accept, contentType, authNames,
                     returnType, isBodyNullable);
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.client;
+
+import org.apache.http.HttpConnection;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpCoreContext;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Count requests and connections opened for clients sharing a connection pool. A connection is new when the response
+ * is for the first request sent over it.
+ */
+public class HubConnectionMetrics implements HttpResponseInterceptor {
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong connections = new AtomicLong();
+
+    @Override
+    public void process(final HttpResponse response, final HttpContext context) {
+        requests.incrementAndGet();
+        final HttpConnection connection = HttpCoreContext.adapt(context).getConnection();
+        if(connection != null && connection.getMetrics().getRequestCount() <= 1) {
+            connections.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return Number of responses received
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return Number of connections opened
+     */
+    public long getConnections() {
+        return connections.get();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("HubConnectionMetrics{");
+        sb.append("requests=").append(requests);
+        sb.append(", connections=").append(connections);
+        sb.append('}');
+        return sb.toString();
+    }
+}
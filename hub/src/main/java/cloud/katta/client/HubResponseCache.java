@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.client;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Cache of API responses for selected operations revalidated with conditional requests. Responses are stored with
+ * their <code>ETag</code> and <code>Last-Modified</code> validators and served without a request while fresh according
+ * to <code>Cache-Control: max-age</code>. A <code>304 Not Modified</code> response is answered from memory. Responses
+ * with <code>Cache-Control: no-store</code> are never stored. Cached response objects are shared and must not be
+ * modified.
+ */
+public class HubResponseCache {
+    private static final Logger log = LogManager.getLogger(HubResponseCache.class);
+
+    /**
+     * Operations for resources read far more often than modified
+     */
+    public static final Set<String> DEFAULT_OPERATIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "ConfigResourceApi.apiConfigGet",
+            "SettingsResourceApi.apiSettingsGet",
+            "StorageProfileResourceApi.apiStorageprofileGet",
+            "VaultResourceApi.apiVaultsVaultIdUvfVaultUvfGet",
+            "VaultResourceApi.apiVaultsVaultIdUvfJwksJsonGet"
+    )));
+
+    /**
+     * Maximum number of cached responses
+     */
+    private static final int MAXIMUM_SIZE = 1000;
+
+    /**
+     * Operations opted in for caching
+     */
+    private final Set<String> operations;
+
+    private final Cache<String, Entry> responses = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .build();
+
+    public HubResponseCache() {
+        this(DEFAULT_OPERATIONS);
+    }
+
+    /**
+     * @param operations Operation IDs in the form <code>ResourceApi.operation</code> to cache responses for
+     */
+    public HubResponseCache(final Set<String> operations) {
+        this.operations = operations;
+    }
+
+    /**
+     * @param operation Operation ID
+     * @param method    HTTP method
+     * @return True if responses for operation are cached
+     */
+    public boolean isCached(final String operation, final String method) {
+        return "GET".equals(method) && operations.contains(operation);
+    }
+
+    /**
+     * @param key Request key
+     * @return Cached response or null
+     */
+    public Entry get(final String key) {
+        return responses.getIfPresent(key);
+    }
+
+    /**
+     * Store response if permitted by <code>Cache-Control</code> and validators or freshness are available
+     *
+     * @param key      Request key
+     * @param response Response from server
+     */
+    public void put(final String key, final ApiResponse<?> response) {
+        final Entry entry = new Entry(response);
+        if(entry.noStore) {
+            log.debug("Skip caching response for {} with no-store", key);
+            responses.invalidate(key);
+            return;
+        }
+        if(null == entry.etag && null == entry.lastModified && entry.expires <= System.currentTimeMillis()) {
+            log.debug("Skip caching response for {} with no validator", key);
+            return;
+        }
+        log.debug("Cache response for {} with {}", key, entry);
+        responses.put(key, entry);
+    }
+
+    /**
+     * Update validators and freshness of cached response from <code>304 Not Modified</code> response
+     *
+     * @param key     Request key
+     * @param cached  Cached response
+     * @param headers Headers of 304 response
+     * @return Cached response
+     */
+    public Entry revalidated(final String key, final Entry cached, final Map<String, List<String>> headers) {
+        final String etag = header(headers, "ETag");
+        final String lastModified = header(headers, "Last-Modified");
+        final Entry entry = new Entry(cached.response, null == etag ? cached.etag : etag,
+                null == lastModified ? cached.lastModified : lastModified, headers);
+        responses.put(key, entry);
+        return entry;
+    }
+
+    public void invalidate(final String key) {
+        responses.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        responses.invalidateAll();
+    }
+
+    /**
+     * @param path        Request path
+     * @param queryParams Query parameters
+     * @param accept      Accept header
+     * @return Key for request
+     */
+    public static String key(final String path, final List<Pair> queryParams, final String accept) {
+        return String.format("%s?%s#%s", path, null == queryParams ? "" : queryParams.stream()
+                .map(p -> String.format("%s=%s", p.getName(), p.getValue())).sorted().collect(Collectors.joining("&")), accept);
+    }
+
+    private static String header(final Map<String, List<String>> headers, final String name) {
+        if(null == headers) {
+            return null;
+        }
+        for(Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if(name.equalsIgnoreCase(header.getKey()) && header.getValue() != null && !header.getValue().isEmpty()) {
+                return header.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    public static final class Entry {
+        private final ApiResponse<?> response;
+        private final String etag;
+        private final String lastModified;
+        private final boolean noStore;
+        private final boolean noCache;
+
+        /**
+         * Milliseconds since epoch until response can be served without revalidation
+         */
+        private final long expires;
+
+        private Entry(final ApiResponse<?> response) {
+            this(response, header(response.getHeaders(), "ETag"), header(response.getHeaders(), "Last-Modified"), response.getHeaders());
+        }
+
+        /**
+         * @param response     Response with data
+         * @param etag         Entity tag or null
+         * @param lastModified Last modification date or null
+         * @param control      Headers with cache control
+         */
+        private Entry(final ApiResponse<?> response, final String etag, final String lastModified, final Map<String, List<String>> control) {
+            this.response = response;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            final String cacheControl = header(control, "Cache-Control");
+            long maxAge = 0L;
+            boolean noStore = false;
+            boolean noCache = false;
+            if(cacheControl != null) {
+                for(String directive : cacheControl.split(",")) {
+                    directive = directive.trim().toLowerCase();
+                    if("no-store".equals(directive)) {
+                        noStore = true;
+                    }
+                    else if("no-cache".equals(directive)) {
+                        noCache = true;
+                    }
+                    else if(directive.startsWith("max-age=")) {
+                        try {
+                            maxAge = Long.parseLong(directive.substring("max-age=".length()));
+                        }
+                        catch(NumberFormatException e) {
+                            log.warn("Invalid directive {}", directive);
+                        }
+                    }
+                }
+            }
+            this.noStore = noStore;
+            this.noCache = noCache;
+            this.expires = noCache ? 0L : System.currentTimeMillis() + maxAge * 1000L;
+        }
+
+        public ApiResponse<?> getResponse() {
+            return response;
+        }
+
+        public String getETag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * @return True if response can be served without revalidation
+         */
+        public boolean isFresh() {
+            return !noCache && System.currentTimeMillis() < expires;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Entry{");
+            sb.append("etag='").append(etag).append('\'');
+            sb.append(", lastModified='").append(lastModified).append('\'');
+            sb.append(", expires=").append(expires);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
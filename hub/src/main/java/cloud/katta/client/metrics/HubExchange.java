@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.client.metrics;
+
+/**
+ * Measurement of a single API operation including all HTTP executions for retries. Bound to the thread executing the
+ * operation to allow HTTP interceptors to record bytes transferred.
+ */
+public final class HubExchange {
+
+    private static final ThreadLocal<HubExchange> current = new ThreadLocal<>();
+
+    private final String operation;
+    private final String method;
+    private final long start;
+
+    private int status;
+    private long duration;
+    private int executions;
+    private long requestBytes;
+    private long responseBytes;
+
+    private HubExchange(final String operation, final String method) {
+        this.operation = operation;
+        this.method = method;
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * Start measurement for operation on current thread
+     *
+     * @param operation Operation ID
+     * @param method    HTTP method
+     */
+    public static HubExchange begin(final String operation, final String method) {
+        final HubExchange exchange = new HubExchange(operation, method);
+        current.set(exchange);
+        return exchange;
+    }
+
+    /**
+     * @return Measurement in progress on current thread or null
+     */
+    public static HubExchange current() {
+        return current.get();
+    }
+
+    /**
+     * Complete measurement and unbind from current thread
+     */
+    public HubExchange end() {
+        duration = System.nanoTime() - start;
+        current.remove();
+        return this;
+    }
+
+    /**
+     * @param status HTTP status code or 0 if no response was received
+     */
+    public HubExchange withStatus(final int status) {
+        this.status = status;
+        return this;
+    }
+
+    /**
+     * Record HTTP request sent
+     *
+     * @param bytes Length of request body or -1 if unknown
+     */
+    public void request(final long bytes) {
+        executions++;
+        if(bytes > 0) {
+            requestBytes += bytes;
+        }
+    }
+
+    /**
+     * Record HTTP response received
+     *
+     * @param bytes Length of response body or -1 if unknown
+     */
+    public void response(final long bytes) {
+        if(bytes > 0) {
+            responseBytes += bytes;
+        }
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return Status class as 1 for informational up to 5 for server error or 0 if no response was received
+     */
+    public int getStatusClass() {
+        return status / 100;
+    }
+
+    /**
+     * @return Duration in nanoseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return Number of HTTP executions after the first
+     */
+    public int getRetries() {
+        return Math.max(0, executions - 1);
+    }
+
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("HubExchange{");
+        sb.append("operation='").append(operation).append('\'');
+        sb.append(", status=").append(status);
+        sb.append(", duration=").append(duration);
+        sb.append(", retries=").append(this.getRetries());
+        sb.append(", requestBytes=").append(requestBytes);
+        sb.append(", responseBytes=").append(responseBytes);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.client.metrics;
+
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Record executions and bytes transferred for the operation in progress on the current thread
+ */
+public class HubExchangeInterceptor implements HttpRequestInterceptor, HttpResponseInterceptor {
+
+    @Override
+    public void process(final HttpRequest request, final HttpContext context) {
+        final HubExchange exchange = HubExchange.current();
+        if(null == exchange) {
+            return;
+        }
+        if(request instanceof HttpEntityEnclosingRequest && ((HttpEntityEnclosingRequest) request).getEntity() != null) {
+            exchange.request(((HttpEntityEnclosingRequest) request).getEntity().getContentLength());
+        }
+        else {
+            exchange.request(0L);
+        }
+    }
+
+    @Override
+    public void process(final HttpResponse response, final HttpContext context) {
+        final HubExchange exchange = HubExchange.current();
+        if(null == exchange) {
+            return;
+        }
+        exchange.response(null == response.getEntity() ? 0L : response.getEntity().getContentLength());
+    }
+}
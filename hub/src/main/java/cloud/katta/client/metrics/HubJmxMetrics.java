@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.client.metrics;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Statistics per operation registered as MXBean <code>cloud.katta:type=HubApiClient,name=&lt;operation&gt;</code> on
+ * first use
+ */
+public class HubJmxMetrics implements HubMetrics {
+    private static final Logger log = LogManager.getLogger(HubJmxMetrics.class);
+
+    private final ConcurrentMap<String, HubOperationStatistics> operations = new ConcurrentHashMap<>();
+
+    private final MBeanServer server;
+
+    public HubJmxMetrics() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    /**
+     * @param server MBean server or null to not register statistics
+     */
+    public HubJmxMetrics(final MBeanServer server) {
+        this.server = server;
+    }
+
+    @Override
+    public void record(final HubExchange exchange) {
+        operations.computeIfAbsent(exchange.getOperation(), this::register).record(exchange);
+    }
+
+    /**
+     * @return Statistics of operations recorded
+     */
+    public Collection<HubOperationStatistics> getStatistics() {
+        return Collections.unmodifiableCollection(operations.values());
+    }
+
+    private HubOperationStatistics register(final String operation) {
+        final HubOperationStatistics statistics = new HubOperationStatistics(operation);
+        if(server != null) {
+            try {
+                final ObjectName name = new ObjectName(String.format("cloud.katta:type=HubApiClient,name=%s", ObjectName.quote(operation)));
+                if(!server.isRegistered(name)) {
+                    server.registerMBean(statistics, name);
+                }
+            }
+            catch(JMException e) {
+                log.warn("Failure {} registering statistics for {}", e.getMessage(), operation);
+            }
+        }
+        return statistics;
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.client.metrics;
+
+/**
+ * Receive measurements of Hub API operations. Implementations are discovered with {@link java.util.ServiceLoader}
+ * from <code>META-INF/services/cloud.katta.client.metrics.HubMetrics</code> in addition to the JMX statistics
+ * registered by default.
+ */
+public interface HubMetrics {
+
+    /**
+     * Called on the thread executing the operation after completion. Must not block.
+     *
+     * @param exchange Measurement of completed operation
+     */
+    void record(HubExchange exchange);
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.client.metrics;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Metrics for all Hub connections combining JMX statistics with implementations found on the classpath
+ */
+public final class HubMetricsFactory {
+    private static final Logger log = LogManager.getLogger(HubMetricsFactory.class);
+
+    private static final HubJmxMetrics jmx = new HubJmxMetrics();
+
+    private static final HubMetrics metrics = create();
+
+    private HubMetricsFactory() {
+    }
+
+    private static HubMetrics create() {
+        final List<HubMetrics> delegates = new ArrayList<>();
+        delegates.add(jmx);
+        try {
+            for(HubMetrics implementation : ServiceLoader.load(HubMetrics.class, HubMetrics.class.getClassLoader())) {
+                log.info("Register metrics {}", implementation);
+                delegates.add(implementation);
+            }
+        }
+        catch(ServiceConfigurationError e) {
+            log.warn("Failure {} loading metrics", e.getMessage());
+        }
+        return exchange -> {
+            for(HubMetrics delegate : delegates) {
+                try {
+                    delegate.record(exchange);
+                }
+                catch(RuntimeException e) {
+                    log.warn("Failure {} recording {} in {}", e.getMessage(), exchange, delegate);
+                }
+            }
+        };
+    }
+
+    public static HubMetrics get() {
+        return metrics;
+    }
+
+    /**
+     * @return Statistics registered with JMX
+     */
+    public static HubJmxMetrics jmx() {
+        return jmx;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.client.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histogram of a single operation
+ */
+public class HubOperationStatistics implements HubOperationStatisticsMXBean {
+
+    private static final long[] BOUNDS = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final String operation;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder successful = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0L);
+    private final AtomicLongArray histogram = new AtomicLongArray(BOUNDS.length + 1);
+
+    public HubOperationStatistics(final String operation) {
+        this.operation = operation;
+    }
+
+    public void record(final HubExchange exchange) {
+        count.increment();
+        switch(exchange.getStatusClass()) {
+            case 2:
+                successful.increment();
+                break;
+            case 4:
+                clientErrors.increment();
+                break;
+            case 5:
+                serverErrors.increment();
+                break;
+            case 0:
+                failures.increment();
+                break;
+        }
+        retries.add(exchange.getRetries());
+        requestBytes.add(exchange.getRequestBytes());
+        responseBytes.add(exchange.getResponseBytes());
+        totalNanos.add(exchange.getDuration());
+        maxNanos.accumulate(exchange.getDuration());
+        final long millis = TimeUnit.NANOSECONDS.toMillis(exchange.getDuration());
+        int bucket = 0;
+        while(bucket < BOUNDS.length && millis > BOUNDS[bucket]) {
+            bucket++;
+        }
+        histogram.incrementAndGet(bucket);
+    }
+
+    @Override
+    public String getOperation() {
+        return operation;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getSuccessful() {
+        return successful.sum();
+    }
+
+    @Override
+    public long getClientErrors() {
+        return clientErrors.sum();
+    }
+
+    @Override
+    public long getServerErrors() {
+        return serverErrors.sum();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    @Override
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    @Override
+    public long getRequestBytes() {
+        return requestBytes.sum();
+    }
+
+    @Override
+    public long getResponseBytes() {
+        return responseBytes.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        final long n = count.sum();
+        return 0 == n ? 0d : totalNanos.sum() / 1e6 / n;
+    }
+
+    @Override
+    public long getMaxMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+    }
+
+    @Override
+    public long[] getHistogramBounds() {
+        return BOUNDS.clone();
+    }
+
+    @Override
+    public long[] getHistogram() {
+        final long[] buckets = new long[histogram.length()];
+        for(int i = 0; i < buckets.length; i++) {
+            buckets[i] = histogram.get(i);
+        }
+        return buckets;
+    }
+
+    @Override
+    public void reset() {
+        count.reset();
+        successful.reset();
+        clientErrors.reset();
+        serverErrors.reset();
+        failures.reset();
+        retries.reset();
+        requestBytes.reset();
+        responseBytes.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        for(int i = 0; i < histogram.length(); i++) {
+            histogram.set(i, 0L);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("HubOperationStatistics{");
+        sb.append("operation='").append(operation).append('\'');
+        sb.append(", count=").append(count);
+        sb.append(", meanMillis=").append(this.getMeanMillis());
+        sb.append(", maxMillis=").append(this.getMaxMillis());
+        sb.append('}');
+        return sb.toString();
+    }
+}
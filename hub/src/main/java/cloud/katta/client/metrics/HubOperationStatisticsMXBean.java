@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.client.metrics;
+
+/**
+ * Statistics of a Hub API operation exposed with JMX
+ */
+public interface HubOperationStatisticsMXBean {
+
+    String getOperation();
+
+    long getCount();
+
+    /**
+     * @return Responses with status 2xx
+     */
+    long getSuccessful();
+
+    /**
+     * @return Responses with status 4xx
+     */
+    long getClientErrors();
+
+    /**
+     * @return Responses with status 5xx
+     */
+    long getServerErrors();
+
+    /**
+     * @return Operations failed without response
+     */
+    long getFailures();
+
+    long getRetries();
+
+    long getRequestBytes();
+
+    long getResponseBytes();
+
+    double getMeanMillis();
+
+    long getMaxMillis();
+
+    /**
+     * @return Upper bounds in milliseconds of latency histogram buckets
+     */
+    long[] getHistogramBounds();
+
+    /**
+     * @return Number of operations per latency bucket with an additional last bucket for larger latencies
+     */
+    long[] getHistogram();
+
+    void reset();
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.core;
+
+import ch.cyberduck.core.Host;
+
+import cloud.katta.crypto.DeviceKeys;
+import cloud.katta.crypto.KeyPairPool;
+import cloud.katta.crypto.UserKeys;
+import cloud.katta.workflows.exceptions.AccessException;
+
+/**
+ * Take device and user keys from pool of pre-generated key pairs. Prompts are delegated.
+ */
+public class KeyPairPoolDeviceSetupCallback implements DeviceSetupCallback {
+
+    private final DeviceSetupCallback proxy;
+    private final KeyPairPool pool;
+
+    public KeyPairPoolDeviceSetupCallback(final DeviceSetupCallback proxy, final KeyPairPool pool) {
+        this.proxy = proxy;
+        this.pool = pool;
+    }
+
+    @Override
+    public AccountKeyAndDeviceName displayAccountKeyAndAskDeviceName(final Host bookmark, final String accountKey) throws AccessException {
+        return proxy.displayAccountKeyAndAskDeviceName(bookmark, accountKey);
+    }
+
+    @Override
+    public AccountKeyAndDeviceName askForAccountKeyAndDeviceName(final Host bookmark) throws AccessException {
+        return proxy.askForAccountKeyAndDeviceName(bookmark);
+    }
+
+    @Override
+    public String generateAccountKey() {
+        return proxy.generateAccountKey();
+    }
+
+    @Override
+    public DeviceKeys generateDeviceKey() {
+        return DeviceKeys.create(pool);
+    }
+
+    @Override
+    public UserKeys generateUserKeys() {
+        return UserKeys.create(pool);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("KeyPairPoolDeviceSetupCallback{");
+        sb.append("proxy=").append(proxy);
+        sb.append('}');
+        return sb.toString();
+    }
+}
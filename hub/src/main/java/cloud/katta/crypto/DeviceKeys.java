@@ -57,6 +57,13 @@ public class DeviceKeys implements Destroyable {
         return new DeviceKeys(P384KeyPair.generate());
     }
 
+    /**
+     * @param pool Pre-generated key pairs
+     */
+    public static DeviceKeys create(final KeyPairPool pool) {
+        return new DeviceKeys(pool.take());
+    }
+
     public static boolean validate(final DeviceKeys deviceKeys) {
         return deviceKeys.getEcKeyPair() != null;
     }
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.crypto;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cryptomator.cryptolib.common.P384KeyPair;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded stock of P-384 key pairs generated in the background. Every key pair is handed out once and removed from
+ * the pool. Key pairs older than the maximum age are destroyed instead of handed out and periodically replaced in the
+ * background once filled. If the pool is empty, a key pair is generated on the caller's thread. Remaining key pairs are
+ * destroyed when the pool is closed.
+ */
+public class KeyPairPool implements AutoCloseable {
+    private static final Logger log = LogManager.getLogger(KeyPairPool.class);
+
+    /**
+     * Generate all key pairs on the caller's thread
+     */
+    public static final KeyPairPool disabled = new KeyPairPool(0, 0L);
+
+    /**
+     * Minimum period in milliseconds to replace expired key pairs
+     */
+    private static final long MINIMUM_PERIOD = 1000L;
+
+    private final int capacity;
+
+    /**
+     * Maximum age in milliseconds of key pairs handed out
+     */
+    private final long ttl;
+
+    private final Deque<Entry> keys = new ArrayDeque<>();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "keypair-pool");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private boolean closed;
+
+    /**
+     * Periodic replacement of expired key pairs scheduled on first fill
+     */
+    private ScheduledFuture<?> expiry;
+
+    /**
+     * @param capacity Maximum number of key pairs kept in stock
+     * @param ttl      Maximum age in milliseconds of key pairs handed out
+     */
+    public KeyPairPool(final int capacity, final long ttl) {
+        this.capacity = capacity;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Generate key pairs in the background up to capacity
+     */
+    public void fill() {
+        if(0 == capacity) {
+            return;
+        }
+        synchronized(keys) {
+            if(null == expiry && !closed) {
+                final long period = Math.max(MINIMUM_PERIOD, ttl / 2);
+                try {
+                    expiry = executor.scheduleWithFixedDelay(this::expire, period, period, TimeUnit.MILLISECONDS);
+                }
+                catch(RejectedExecutionException e) {
+                    log.debug("Skip expiry of closed pool");
+                }
+            }
+        }
+        if(refilling.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::refill);
+            }
+            catch(RejectedExecutionException e) {
+                log.debug("Skip refill of closed pool");
+                refilling.set(false);
+            }
+        }
+    }
+
+    private void refill() {
+        try {
+            while(true) {
+                synchronized(keys) {
+                    if(closed || keys.size() >= capacity) {
+                        break;
+                    }
+                }
+                final Entry entry = new Entry(this.generate());
+                synchronized(keys) {
+                    if(closed || keys.size() >= capacity) {
+                        entry.keyPair.destroy();
+                        break;
+                    }
+                    keys.addLast(entry);
+                }
+            }
+            log.debug("Filled pool with {} key pairs", capacity);
+        }
+        finally {
+            refilling.set(false);
+        }
+    }
+
+    /**
+     * Destroy key pairs in stock older than the maximum age and generate replacements
+     */
+    private void expire() {
+        int expired = 0;
+        synchronized(keys) {
+            for(Iterator<Entry> iter = keys.iterator(); iter.hasNext(); ) {
+                final Entry entry = iter.next();
+                if(System.currentTimeMillis() - entry.timestamp >= ttl) {
+                    entry.keyPair.destroy();
+                    iter.remove();
+                    expired++;
+                }
+            }
+        }
+        if(expired > 0) {
+            log.debug("Replace {} expired key pairs", expired);
+            this.fill();
+        }
+    }
+
+    /**
+     * @return Key pair never handed out before
+     */
+    public P384KeyPair take() {
+        try {
+            while(true) {
+                final Entry entry;
+                synchronized(keys) {
+                    entry = keys.pollFirst();
+                }
+                if(null == entry) {
+                    log.debug("Generate key pair with no key pair in pool");
+                    return this.generate();
+                }
+                if(System.currentTimeMillis() - entry.timestamp < ttl) {
+                    return entry.keyPair;
+                }
+                log.debug("Destroy expired key pair generated at {}", entry.timestamp);
+                entry.keyPair.destroy();
+            }
+        }
+        finally {
+            this.fill();
+        }
+    }
+
+    protected P384KeyPair generate() {
+        return P384KeyPair.generate();
+    }
+
+    /**
+     * @return Number of key pairs in stock
+     */
+    public int size() {
+        synchronized(keys) {
+            return keys.size();
+        }
+    }
+
+    /**
+     * Stop generating key pairs and destroy all key pairs in stock
+     */
+    @Override
+    public void close() {
+        if(0 == capacity) {
+            return;
+        }
+        executor.shutdownNow();
+        synchronized(keys) {
+            closed = true;
+            for(Entry entry : keys) {
+                entry.keyPair.destroy();
+            }
+            log.debug("Destroyed {} unused key pairs", keys.size());
+            keys.clear();
+        }
+    }
+
+    private static final class Entry {
+        private final P384KeyPair keyPair;
+
+        /**
+         * Milliseconds since epoch when generated
+         */
+        private final long timestamp = System.currentTimeMillis();
+
+        private Entry(final P384KeyPair keyPair) {
+            this.keyPair = keyPair;
+        }
+    }
+}
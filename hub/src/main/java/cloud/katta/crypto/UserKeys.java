@@ -85,6 +85,13 @@ public class UserKeys implements Destroyable {
         return new UserKeys(P384KeyPair.generate(), P384KeyPair.generate());
     }
 
+    /**
+     * @param pool Pre-generated key pairs
+     */
+    public static UserKeys create(final KeyPairPool pool) {
+        return new UserKeys(pool.take(), pool.take());
+    }
+
     private UserKeyPayload prepareForEncryption() {
         return new UserKeyPayload(
                 Base64.getEncoder().encodeToString(ecdhKeyPair().getPrivate().getEncoded()),
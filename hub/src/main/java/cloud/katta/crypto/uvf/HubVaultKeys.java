@@ -12,6 +12,7 @@ import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.Base64;
 
+import cloud.katta.crypto.KeyPairPool;
 import cloud.katta.workflows.exceptions.SecurityFailure;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWEAlgorithm;
@@ -68,8 +69,19 @@ public final class HubVaultKeys {
      * @throws SecurityFailure if there is an error during the creation of cryptographic keys.
      */
     public static HubVaultKeys create() throws SecurityFailure {
+        return create(KeyPairPool.disabled);
+    }
+
+    /**
+     * Initializing memberKey with standard cryptographic algorithms and parameters and taking recoveryKey from pool.
+     *
+     * @param pool Pre-generated key pairs
+     * @return New key set
+     * @throws SecurityFailure if there is an error during the creation of cryptographic keys.
+     */
+    public static HubVaultKeys create(final KeyPairPool pool) throws SecurityFailure {
         try {
-            return new HubVaultKeys();
+            return new HubVaultKeys(pool.take());
         }
         catch(JOSEException e) {
             throw new SecurityFailure(e.getMessage(), e);
@@ -77,16 +89,17 @@ public final class HubVaultKeys {
     }
 
     /**
-     * This private constructor generates a default instance of the class, initializing memberKey and recoveryKey
-     * using standard cryptographic algorithms and parameters.
+     * This private constructor generates a default instance of the class, initializing memberKey using standard
+     * cryptographic algorithms and parameters.
      *
+     * @param recoveryKey Newly generated recovery key
      * @throws JOSEException if there is an error during the creation of cryptographic keys.
      */
-    private HubVaultKeys() throws JOSEException {
+    private HubVaultKeys(final P384KeyPair recoveryKey) throws JOSEException {
         this(new OctetSequenceKeyGenerator(256)
                 .keyID(KID_MEMBER_KEY)
                 .algorithm(JWEAlgorithm.A256KW)
-                .generate(), P384KeyPair.generate());
+                .generate(), recoveryKey);
     }
 
     /**
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.crypto.wot;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cryptomator.cryptolib.common.MessageDigestSupplier;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.interfaces.ECPublicKey;
+import java.text.ParseException;
+import java.util.function.Supplier;
+
+import cloud.katta.crypto.JWT;
+import cloud.katta.crypto.exceptions.InvalidSignatureException;
+import cloud.katta.crypto.exceptions.JWTParseException;
+import cloud.katta.workflows.exceptions.SecurityFailure;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.BaseEncoding;
+import com.nimbusds.jose.JOSEException;
+
+/**
+ * Bounded memo of signatures in Web of Trust signature chains already verified in this process. Entries are keyed by
+ * a digest of the signer public key and the signature so that a changed key or signature is always verified again.
+ * Failed verifications are never remembered.
+ */
+public final class VerifiedSignatures {
+    private static final Logger log = LogManager.getLogger(VerifiedSignatures.class);
+
+    /**
+     * Maximum number of verified signatures remembered
+     */
+    private static final int MAXIMUM_SIZE = 10000;
+
+    private static final Cache<String, SignedKeys> verified = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .build();
+
+    private VerifiedSignatures() {
+    }
+
+    /**
+     * Verify signature unless already verified with the same signer public key.
+     *
+     * @param signature       ES384 JWT signing public keys
+     * @param signerPublicKey Public key to verify signature
+     * @return Signed public keys from payload
+     * @throws SecurityFailure Invalid signature
+     */
+    public static SignedKeys verify(final String signature, final ECPublicKey signerPublicKey) throws SecurityFailure {
+        final String digest = digest(signature, signerPublicKey);
+        final SignedKeys cached = verified.getIfPresent(digest);
+        if(cached != null) {
+            log.trace("Skip verification of signature {} already verified", digest);
+            return cached;
+        }
+        final SignedKeys signedKeys;
+        try {
+            signedKeys = SignedKeys.fromPayload(JWT.parse(signature, signerPublicKey));
+        }
+        catch(ParseException | InvalidSignatureException | JWTParseException | JOSEException e) {
+            throw new SecurityFailure(e);
+        }
+        verified.put(digest, signedKeys);
+        return signedKeys;
+    }
+
+    /**
+     * Remove all verified signatures
+     */
+    public static void clear() {
+        verified.invalidateAll();
+    }
+
+    private static String digest(final String signature, final ECPublicKey signerPublicKey) {
+        final Supplier<MessageDigest> instance = MessageDigestSupplier.SHA256.instance();
+        final MessageDigest digest = instance.get();
+        digest.update(signerPublicKey.getEncoded());
+        // Separator between encoded key and signature
+        digest.update((byte) 0);
+        digest.update(signature.getBytes(StandardCharsets.US_ASCII));
+        return BaseEncoding.base16().encode(digest.digest());
+    }
+}
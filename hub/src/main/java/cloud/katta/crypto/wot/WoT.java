@@ -13,13 +13,12 @@ import java.text.ParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 
 import cloud.katta.client.model.TrustedUserDto;
 import cloud.katta.client.model.UserDto;
-import cloud.katta.crypto.JWT;
-import cloud.katta.crypto.exceptions.InvalidSignatureException;
-import cloud.katta.crypto.exceptions.JWTParseException;
 import cloud.katta.workflows.exceptions.SecurityFailure;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JOSEObjectType;
@@ -47,13 +46,8 @@ public class WoT {
     public static void verifyRecursive(final List<String> signatureChain, final ECPublicKey signerPublicKey, final SignedKeys allegedSignedKey) throws SecurityFailure {
         // get first element of signature chain
         final String signature = signatureChain.get(0);
-        final SignedKeys signedKeys;
-        try {
-            signedKeys = SignedKeys.fromPayload(JWT.parse(signature, signerPublicKey));
-        }
-        catch(ParseException | InvalidSignatureException | JWTParseException | JOSEException e) {
-            throw new SecurityFailure(e);
-        }
+        // chains share prefixes starting with my key
+        final SignedKeys signedKeys = VerifiedSignatures.verify(signature, signerPublicKey);
         final List<String> remainingChain = signatureChain.subList(1, signatureChain.size());
         if(remainingChain.isEmpty()) {
             // last element in chain should match signed public key
@@ -142,27 +136,61 @@ public class WoT {
      * @return the verified trusts
      */
     public static Map<TrustedUserDto, Integer> verifyTrusts(final List<TrustedUserDto> trusts, final List<UserDto> users, final ECPublicKey signerPublicKey) {
-        final Map<TrustedUserDto, Integer> verified = new HashMap<>();
-        for(final TrustedUserDto trust : trusts) {
-            final String trustedUserId = trust.getTrustedUserId();
-            if(trustedUserId == null) {
-                log.warn("Verification for {} failed. No ID found for trustee.", trust);
-                continue;
-            }
-            final UserDto user = users.stream().filter(u -> trustedUserId.equals(u.getId())).findFirst().orElse(null);
-            final List<String> signatureChain = trust.getSignatureChain();
-            if(user == null || signatureChain == null) {
-                log.warn("Verification for {} failed. No user or no signature chain found.", trust);
-                continue;
-            }
-            try {
-                WoT.verifyRecursive(signatureChain, signerPublicKey, SignedKeys.fromUser(user));
-                verified.put(trust, signatureChain.size());
+        return verifyTrusts(trusts, users, signerPublicKey, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Verify independent signature chains in parallel.
+     *
+     * @param trusts          signer's signature chains
+     * @param users           other users
+     * @param signerPublicKey signer's public key
+     * @param pool            Pool to verify signature chains
+     * @return the verified trusts
+     * @see #verifyTrusts(List, List, ECPublicKey)
+     */
+    public static Map<TrustedUserDto, Integer> verifyTrusts(final List<TrustedUserDto> trusts, final List<UserDto> users, final ECPublicKey signerPublicKey,
+                                                            final ForkJoinPool pool) {
+        // Index users by ID keeping first occurrence
+        final Map<String, UserDto> index = new HashMap<>();
+        for(final UserDto user : users) {
+            if(user.getId() != null) {
+                index.putIfAbsent(user.getId(), user);
             }
-            catch(SecurityFailure e) {
-                log.warn("Verification for {} failed - not granting access.", trust, e);
+        }
+        final Map<TrustedUserDto, Integer> verified = new ConcurrentHashMap<>();
+        // Parallel stream runs in the pool it is submitted to
+        pool.submit(() -> trusts.parallelStream().forEach(trust -> {
+            final Integer level = verifyTrust(trust, index, signerPublicKey);
+            if(level != null) {
+                verified.put(trust, level);
             }
+        })).join();
+        return new HashMap<>(verified);
+    }
+
+    /**
+     * @return Length of verified signature chain or null if unverified
+     */
+    private static Integer verifyTrust(final TrustedUserDto trust, final Map<String, UserDto> users, final ECPublicKey signerPublicKey) {
+        final String trustedUserId = trust.getTrustedUserId();
+        if(trustedUserId == null) {
+            log.warn("Verification for {} failed. No ID found for trustee.", trust);
+            return null;
+        }
+        final UserDto user = users.get(trustedUserId);
+        final List<String> signatureChain = trust.getSignatureChain();
+        if(user == null || signatureChain == null) {
+            log.warn("Verification for {} failed. No user or no signature chain found.", trust);
+            return null;
+        }
+        try {
+            WoT.verifyRecursive(signatureChain, signerPublicKey, SignedKeys.fromUser(user));
+            return signatureChain.size();
+        }
+        catch(SecurityFailure e) {
+            log.warn("Verification for {} failed - not granting access.", trust, e);
+            return null;
         }
-        return verified;
     }
 }
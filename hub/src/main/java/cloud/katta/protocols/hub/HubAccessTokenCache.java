@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import cloud.katta.crypto.UserKeys;
+import cloud.katta.crypto.uvf.UVFAccessTokenPayload;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Session scoped cache of decrypted vault access tokens with short time to live. Entries must be invalidated when the
+ * server indicates access has been revoked.
+ */
+public class HubAccessTokenCache {
+    private static final Logger log = LogManager.getLogger(HubAccessTokenCache.class);
+
+    /**
+     * Access tokens by vault ID and user key
+     */
+    private final Cache<Key, UVFAccessTokenPayload> tokens;
+
+    /**
+     * @param ttl Time to live in milliseconds. No caching for 0.
+     */
+    public HubAccessTokenCache(final long ttl) {
+        this.tokens = CacheBuilder.newBuilder().expireAfterWrite(ttl, TimeUnit.MILLISECONDS).build();
+    }
+
+    /**
+     * @param vaultId  Vault ID
+     * @param userKeys User keys used to decrypt access token
+     * @return Cached access token or null if missing or expired
+     */
+    public UVFAccessTokenPayload get(final UUID vaultId, final UserKeys userKeys) {
+        return tokens.getIfPresent(new Key(vaultId, userKeys.encodedEcdhPublicKey()));
+    }
+
+    /**
+     * @param vaultId  Vault ID
+     * @param userKeys User keys used to decrypt access token
+     * @param token    Decrypted access token
+     */
+    public void put(final UUID vaultId, final UserKeys userKeys, final UVFAccessTokenPayload token) {
+        tokens.put(new Key(vaultId, userKeys.encodedEcdhPublicKey()), token);
+    }
+
+    /**
+     * Remove access tokens for vault
+     *
+     * @param vaultId Vault ID
+     */
+    public void invalidate(final UUID vaultId) {
+        log.debug("Invalidate access token for vault {}", vaultId);
+        tokens.asMap().keySet().removeIf(key -> key.vaultId.equals(vaultId));
+    }
+
+    /**
+     * Remove all access tokens
+     */
+    public void invalidateAll() {
+        log.debug("Invalidate all access tokens");
+        tokens.invalidateAll();
+    }
+
+    private static final class Key {
+        private final UUID vaultId;
+        private final String userKey;
+
+        private Key(final UUID vaultId, final String userKey) {
+            this.vaultId = vaultId;
+            this.userKey = userKey;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return vaultId.equals(key.vaultId) && userKey.equals(key.userKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * vaultId.hashCode() + userKey.hashCode();
+        }
+    }
+}
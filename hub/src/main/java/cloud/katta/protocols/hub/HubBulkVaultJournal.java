@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.exception.BackgroundException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Local progress journal of bulk vault creation with one JSON record per line appended for every state change. The
+ * last record per vault name determines its state when resuming.
+ */
+public class HubBulkVaultJournal {
+    private static final Logger log = LogManager.getLogger(HubBulkVaultJournal.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    public enum State {
+        /**
+         * Vault creation started with vault ID
+         */
+        started,
+        created,
+        failed
+    }
+
+    private final Path file;
+
+    public HubBulkVaultJournal(final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * @return Last record by vault name in order of first appearance
+     */
+    public Map<String, Entry> load() throws BackgroundException {
+        final Map<String, Entry> entries = new LinkedHashMap<>();
+        if(!Files.exists(file)) {
+            log.debug("No journal found in {}", file);
+            return entries;
+        }
+        try {
+            for(String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if(line.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    final Entry entry = mapper.readValue(line, Entry.class);
+                    entries.put(entry.name, entry);
+                }
+                catch(JsonProcessingException e) {
+                    // Incomplete record from interrupted write
+                    log.warn("Skip invalid record {} in journal {}", line, file);
+                }
+            }
+            return entries;
+        }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map(e);
+        }
+    }
+
+    public void started(final String name, final UUID vaultId) throws BackgroundException {
+        this.append(new Entry(name, vaultId, State.started, null));
+    }
+
+    public void created(final String name, final UUID vaultId) throws BackgroundException {
+        this.append(new Entry(name, vaultId, State.created, null));
+    }
+
+    public void failed(final String name, final UUID vaultId, final String message) throws BackgroundException {
+        this.append(new Entry(name, vaultId, State.failed, message));
+    }
+
+    private synchronized void append(final Entry entry) throws BackgroundException {
+        try {
+            if(file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, (mapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map(e);
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static final class Entry {
+        @JsonProperty("name")
+        String name;
+
+        @JsonProperty("vaultId")
+        UUID vaultId;
+
+        @JsonProperty("state")
+        State state;
+
+        @JsonProperty("message")
+        String message;
+
+        /**
+         * Milliseconds since epoch when recorded
+         */
+        @JsonProperty("timestamp")
+        long timestamp;
+
+        public Entry() {
+        }
+
+        public Entry(final String name, final UUID vaultId, final State state, final String message) {
+            this.name = name;
+            this.vaultId = vaultId;
+            this.state = state;
+            this.message = message;
+            this.timestamp = System.currentTimeMillis();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public UUID getVaultId() {
+            return vaultId;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Entry{");
+            sb.append("name='").append(name).append('\'');
+            sb.append(", vaultId=").append(vaultId);
+            sb.append(", state=").append(state);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import ch.cyberduck.core.DefaultExceptionMappingService;
+import ch.cyberduck.core.DefaultPathAttributes;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.PasswordCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import cloud.katta.client.ApiException;
+import cloud.katta.client.api.VaultResourceApi;
+import cloud.katta.model.StorageProfileDtoWrapper;
+import cloud.katta.protocols.hub.exceptions.HubExceptionMappingService;
+
+/**
+ * Create vaults from a manifest with bounded concurrency. A single storage connection with permission to create
+ * buckets is opened per storage location and shared by all vaults created in that location. Progress is recorded in a
+ * journal to skip vaults already created when run again after a partial failure.
+ */
+public class HubBulkVaultService {
+    private static final Logger log = LogManager.getLogger(HubBulkVaultService.class);
+
+    private final HubSession session;
+    private final HubUVFVaultProvider provider;
+    private final HubBulkVaultJournal journal;
+    private final int concurrency;
+
+    /**
+     * Shared storage by location identifier. Completed with failure connecting to fail remaining vaults in location
+     * without connecting again
+     */
+    private final Map<String, CompletableFuture<HubUVFVaultProvider.Storage>> connections = new ConcurrentHashMap<>();
+
+    /**
+     * @param concurrency Maximum number of vaults created concurrently
+     */
+    public HubBulkVaultService(final HubSession session, final HubUVFVaultProvider provider, final HubBulkVaultJournal journal, final int concurrency) {
+        this.session = session;
+        this.provider = provider;
+        this.journal = journal;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @param requests Vaults to create with unique names
+     * @param listener Notified for every vault as soon as completed
+     * @return Result for every request in order of requests
+     */
+    public List<Result> create(final List<Request> requests, final Listener listener) throws BackgroundException {
+        final Set<String> names = new HashSet<>();
+        for(Request request : requests) {
+            if(!names.add(request.getName())) {
+                throw new BackgroundException(request.getName(), "Duplicate vault name in manifest");
+            }
+        }
+        final Map<String, HubBulkVaultJournal.Entry> progress = journal.load();
+        final ThreadPool pool = ThreadPoolFactory.get("bulk", concurrency);
+        try {
+            final List<Future<Result>> futures = new ArrayList<>(requests.size());
+            for(Request request : requests) {
+                final HubBulkVaultJournal.Entry entry = progress.get(request.getName());
+                if(entry != null && HubBulkVaultJournal.State.created == entry.getState()) {
+                    log.info("Skip vault {} already created with ID {}", request.getName(), entry.getVaultId());
+                    final Result result = new Result(request, entry.getVaultId(), Result.Status.skipped, null);
+                    listener.completed(result);
+                    futures.add(null);
+                    continue;
+                }
+                futures.add(pool.execute(() -> {
+                    final Result result = this.create(request, entry);
+                    listener.completed(result);
+                    return result;
+                }));
+            }
+            final List<Result> results = new ArrayList<>(requests.size());
+            for(int i = 0; i < requests.size(); i++) {
+                final Future<Result> future = futures.get(i);
+                if(null == future) {
+                    results.add(new Result(requests.get(i), progress.get(requests.get(i).getName()).getVaultId(), Result.Status.skipped, null));
+                }
+                else {
+                    results.add(await(future));
+                }
+            }
+            return results;
+        }
+        finally {
+            pool.shutdown(false);
+            this.close();
+        }
+    }
+
+    /**
+     * @param previous Last journal record or null
+     */
+    private Result create(final Request request, final HubBulkVaultJournal.Entry previous) throws BackgroundException {
+        final UUID vaultId = UUID.randomUUID();
+        try {
+            final String region = this.location(request);
+            final HubUVFVaultProvider.Storage storage = this.connect(region);
+            if(previous != null && previous.getVaultId() != null) {
+                // Interrupted before outcome was recorded or failed after vault or bucket was created
+                try {
+                    this.discard(request, previous.getVaultId(), region, storage);
+                }
+                catch(BackgroundException e) {
+                    // Keep record of previous run to discard again when resumed
+                    log.warn("Failure {} discarding vault {} with ID {}", e, request.getName(), previous.getVaultId());
+                    return new Result(request, previous.getVaultId(), Result.Status.failed, e);
+                }
+            }
+            journal.started(request.getName(), vaultId);
+            final HubUVFVault vault = provider.create(session, region, new Path(request.getName(), EnumSet.of(Path.Type.volume, Path.Type.directory)), vaultId, storage);
+            // Keep shared storage connection open
+            vault.destroy();
+            journal.created(request.getName(), vaultId);
+            log.info("Created vault {} with ID {}", request.getName(), vaultId);
+            return new Result(request, vaultId, Result.Status.created, null);
+        }
+        catch(BackgroundException e) {
+            log.warn("Failure {} creating vault {}", e, request.getName());
+            try {
+                journal.failed(request.getName(), vaultId, e.getDetail());
+            }
+            catch(BackgroundException f) {
+                // Continue with remaining vaults
+                log.warn("Failure {} recording failure of vault {}", f, request.getName());
+                e.addSuppressed(f);
+            }
+            return new Result(request, vaultId, Result.Status.failed, e);
+        }
+    }
+
+    /**
+     * Delete vault in Hub and bucket with vault template from an interrupted or failed run
+     *
+     * @param region  Storage location identifier
+     * @param storage Shared storage for location
+     */
+    private void discard(final Request request, final UUID vaultId, final String region, final HubUVFVaultProvider.Storage storage) throws BackgroundException {
+        log.warn("Delete vault {} with ID {} from previous run", request.getName(), vaultId);
+        try {
+            new VaultResourceApi(session.getClient()).apiVaultsVaultIdDelete(vaultId);
+        }
+        catch(ApiException e) {
+            final BackgroundException failure = new HubExceptionMappingService().map(e);
+            if(failure instanceof NotfoundException) {
+                log.debug("Vault {} not found", vaultId);
+            }
+            else {
+                throw failure;
+            }
+        }
+        final Path bucket = new Path(session.getStorageProfiles().get(request.getStorageProfile()).getBucketPrefix() + vaultId,
+                EnumSet.of(Path.Type.volume, Path.Type.directory),
+                new DefaultPathAttributes().setRegion(HubStorageLocationService.StorageLocation.fromIdentifier(region).getRegion()));
+        final List<Path> files = new ArrayList<>();
+        try {
+            this.collect(storage, bucket, files);
+        }
+        catch(NotfoundException e) {
+            log.debug("Bucket {} not found", bucket);
+            return;
+        }
+        log.warn("Delete bucket {} with {} files from previous run", bucket, files.size());
+        files.add(bucket);
+        storage.getSession().getFeature(Delete.class).delete(files, PasswordCallback.noop, new Delete.DisabledCallback());
+    }
+
+    /**
+     * @param files Contents of directory added with files before their parent
+     */
+    private void collect(final HubUVFVaultProvider.Storage storage, final Path directory, final List<Path> files) throws BackgroundException {
+        for(Path file : storage.getSession().getFeature(ListService.class).list(directory, new DisabledListProgressListener())) {
+            if(file.isDirectory()) {
+                this.collect(storage, file, files);
+            }
+            files.add(file);
+        }
+    }
+
+    /**
+     * @return Storage location identifier with default region of storage profile if not set
+     */
+    private String location(final Request request) throws BackgroundException {
+        final StorageProfileDtoWrapper profile = session.getStorageProfiles().get(request.getStorageProfile());
+        return new HubStorageLocationService.StorageLocation(profile.getId().toString(),
+                null == request.getRegion() ? profile.getRegion() : request.getRegion(), profile.getName()).getIdentifier();
+    }
+
+    /**
+     * @param region Storage location identifier
+     * @return Shared storage for location
+     * @throws BackgroundException Failure connecting to location previously or now
+     */
+    private HubUVFVaultProvider.Storage connect(final String region) throws BackgroundException {
+        final CompletableFuture<HubUVFVaultProvider.Storage> future = new CompletableFuture<>();
+        final CompletableFuture<HubUVFVaultProvider.Storage> existing = connections.putIfAbsent(region, future);
+        if(existing != null) {
+            // Wait for connection to location opened by other worker without blocking other locations
+            return await(existing);
+        }
+        try {
+            final HubUVFVaultProvider.Storage storage = provider.connect(session, region);
+            future.complete(storage);
+            return storage;
+        }
+        catch(BackgroundException e) {
+            log.warn("Failure {} connecting to {}", e, region);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        catch(RuntimeException e) {
+            // Release workers waiting for location
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void close() {
+        for(CompletableFuture<HubUVFVaultProvider.Storage> future : connections.values()) {
+            if(future.isDone() && !future.isCompletedExceptionally()) {
+                final HubUVFVaultProvider.Storage storage = future.join();
+                try {
+                    storage.getSession().close();
+                }
+                catch(BackgroundException e) {
+                    log.warn("Failure {} closing {}", e, storage);
+                }
+            }
+        }
+        connections.clear();
+    }
+
+    private static <T> T await(final Future<T> future) throws BackgroundException {
+        try {
+            return future.get();
+        }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new DefaultExceptionMappingService().map(e.getCause());
+        }
+    }
+
+    public interface Listener {
+        /**
+         * Called from background threads
+         */
+        void completed(Result result);
+    }
+
+    public static final class Request {
+        private final String name;
+        private final UUID storageProfile;
+        private final String region;
+
+        /**
+         * @param name           Vault name
+         * @param storageProfile Storage profile ID
+         * @param region         Bucket region or null for default region of storage profile
+         */
+        public Request(final String name, final UUID storageProfile, final String region) {
+            this.name = name;
+            this.storageProfile = storageProfile;
+            this.region = region;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public UUID getStorageProfile() {
+            return storageProfile;
+        }
+
+        public String getRegion() {
+            return region;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Request{");
+            sb.append("name='").append(name).append('\'');
+            sb.append(", storageProfile=").append(storageProfile);
+            sb.append(", region='").append(region).append('\'');
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+
+    public static final class Result {
+        public enum Status {
+            created,
+            /**
+             * Created in previous run
+             */
+            skipped,
+            failed
+        }
+
+        private final Request request;
+        private final UUID vaultId;
+        private final Status status;
+        private final BackgroundException failure;
+
+        public Result(final Request request, final UUID vaultId, final Status status, final BackgroundException failure) {
+            this.request = request;
+            this.vaultId = vaultId;
+            this.status = status;
+            this.failure = failure;
+        }
+
+        public Request getRequest() {
+            return request;
+        }
+
+        public UUID getVaultId() {
+            return vaultId;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @return Failure or null
+         */
+        public BackgroundException getFailure() {
+            return failure;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Result{");
+            sb.append("request=").append(request);
+            sb.append(", vaultId=").append(vaultId);
+            sb.append(", status=").append(status);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
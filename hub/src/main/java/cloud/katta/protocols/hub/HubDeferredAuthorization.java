@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ServiceUnavailableRetryStrategy;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+
+/**
+ * Authorization interceptor and retry strategy set once the OAuth configuration is retrieved from the server. Allows
+ * to bootstrap from <code>/api/config</code> unauthenticated with the same client and connection later used for API
+ * requests.
+ */
+public class HubDeferredAuthorization implements HttpRequestInterceptor, ServiceUnavailableRetryStrategy {
+
+    private volatile HttpRequestInterceptor interceptor;
+    private volatile ServiceUnavailableRetryStrategy retry;
+
+    /**
+     * @param interceptor Add authorization header to requests
+     * @param retry       Retry requests failing with expired tokens
+     */
+    public void set(final HttpRequestInterceptor interceptor, final ServiceUnavailableRetryStrategy retry) {
+        this.interceptor = interceptor;
+        this.retry = retry;
+    }
+
+    @Override
+    public void process(final HttpRequest request, final HttpContext context) throws HttpException, IOException {
+        final HttpRequestInterceptor delegate = interceptor;
+        if(delegate != null) {
+            delegate.process(request, context);
+        }
+    }
+
+    @Override
+    public boolean retryRequest(final HttpResponse response, final int executionCount, final HttpContext context) {
+        final ServiceUnavailableRetryStrategy delegate = retry;
+        return delegate != null && delegate.retryRequest(response, executionCount, context);
+    }
+
+    @Override
+    public long getRetryInterval() {
+        final ServiceUnavailableRetryStrategy delegate = retry;
+        return null == delegate ? 0L : delegate.getRetryInterval();
+    }
+}
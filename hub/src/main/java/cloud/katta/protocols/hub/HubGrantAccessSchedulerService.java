@@ -10,59 +10,267 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.preferences.HostPreferencesFactory;
 import ch.cyberduck.core.shared.ThreadPoolSchedulerFeature;
 
+import org.apache.http.HttpStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 import cloud.katta.client.ApiException;
+import cloud.katta.client.api.AuthorityResourceApi;
 import cloud.katta.client.api.UsersResourceApi;
 import cloud.katta.client.api.VaultResourceApi;
-import cloud.katta.client.model.Role;
-import cloud.katta.client.model.VaultDto;
 import cloud.katta.core.DeviceSetupCallback;
 import cloud.katta.crypto.UserKeys;
 import cloud.katta.protocols.hub.exceptions.HubExceptionMappingService;
+import cloud.katta.workflows.CachingWoTService;
 import cloud.katta.workflows.GrantAccessServiceImpl;
+import cloud.katta.workflows.VaultServiceImpl;
+import cloud.katta.workflows.WoTServiceImpl;
 import cloud.katta.workflows.exceptions.AccessException;
 import cloud.katta.workflows.exceptions.SecurityFailure;
 
+/**
+ * Grant access to users requiring access grant. Long-polls for pending access grants until shutdown when
+ * <code>katta.grant.wait</code> is positive and otherwise checks once per scheduler period.
+ */
 public class HubGrantAccessSchedulerService extends ThreadPoolSchedulerFeature<Host> {
     private static final Logger log = LogManager.getLogger(HubGrantAccessSchedulerService.class);
 
+    /**
+     * Maximum delay in milliseconds before reconnecting after failure
+     */
+    private static final long MAXIMUM_BACKOFF = 60000L;
+
     private final HubSession session;
+    private final long period;
+
+    /**
+     * Seconds to block server side waiting for pending access grants
+     */
+    private final int wait;
+
+    /**
+     * Released on shutdown to interrupt backoff
+     */
+    private final CountDownLatch shutdown = new CountDownLatch(1);
+
+    /**
+     * Users already evaluated per vault without being granted access
+     */
+    private final Map<String, Set<String>> evaluated = new HashMap<>();
+    private long timestamp;
+
+    /**
+     * Trust levels shared for all vaults within validity window. Created on first run
+     */
+    private CachingWoTService trust;
+
+    /**
+     * Parallelism of dedicated pool or -1 for common pool
+     */
+    private final int parallelism;
+
+    /**
+     * Dedicated pool to verify signature chains and encrypt access tokens created on first run or null
+     */
+    private ForkJoinPool pool;
 
     public HubGrantAccessSchedulerService(final HubSession session) {
-        super(HostPreferencesFactory.get(session.getHost()).getLong("hub.protocol.scheduler.period"));
+        this(session, HostPreferencesFactory.get(session.getHost()).getLong("hub.protocol.scheduler.period"),
+                -1 == HostPreferencesFactory.get(session.getHost()).getInteger("katta.grant.wait") ? 25 :
+                        HostPreferencesFactory.get(session.getHost()).getInteger("katta.grant.wait"));
+    }
+
+    /**
+     * @param period Scheduler period in milliseconds
+     * @param wait   Seconds to wait server side for pending access grants or 0 to check once per period
+     */
+    public HubGrantAccessSchedulerService(final HubSession session, final long period, final int wait) {
+        super(period);
         this.session = session;
+        this.period = period;
+        this.wait = wait;
+        this.parallelism = HostPreferencesFactory.get(session.getHost()).getInteger("katta.wot.parallelism");
+    }
+
+    /**
+     * @return Dedicated pool created on first use or common pool
+     */
+    private synchronized ForkJoinPool pool() {
+        if(parallelism <= 0) {
+            return ForkJoinPool.commonPool();
+        }
+        if(null == pool) {
+            log.debug("Create pool with parallelism {}", parallelism);
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    private synchronized CachingWoTService trust() {
+        if(null == trust) {
+            trust = new CachingWoTService(new WoTServiceImpl(new UsersResourceApi(session.getClient()),
+                    new AuthorityResourceApi(session.getClient()), this.pool()),
+                    -1L == HostPreferencesFactory.get(session.getHost()).getLong("katta.wot.snapshot.ttl") ? 60000L :
+                            HostPreferencesFactory.get(session.getHost()).getLong("katta.wot.snapshot.ttl"));
+        }
+        return trust;
     }
 
     @Override
     public Host operate(final PasswordCallback callback) throws BackgroundException {
         log.info("Scheduler for {}", session.getHost());
-        try {
-            final UserKeys userKeys = session.getUserKeys(DeviceSetupCallback.disabled);
-            final List<VaultDto> accessibleVaults = new VaultResourceApi(session.getClient()).apiVaultsAccessibleGet(Role.OWNER);
-            final GrantAccessServiceImpl service = new GrantAccessServiceImpl(
-                    new VaultResourceApi(session.getClient()),
-                    new UsersResourceApi(session.getClient()));
-            for(final VaultDto accessibleVault : accessibleVaults) {
-                if(Boolean.TRUE.equals(accessibleVault.getArchived())) {
-                    log.debug("Skip archived vault {}", accessibleVault);
-                    continue;
+        if(this.isShutdown()) {
+            return session.getHost();
+        }
+        final VaultResourceApi api = new VaultResourceApi(session.getClient());
+        if(wait <= 0) {
+            try {
+                // Pending access grants grouped by vault without waiting
+                this.grant(api.apiVaultsUsersRequiringAccessGrantGet(0));
+            }
+            catch(ApiException e) {
+                throw new HubExceptionMappingService().map(e);
+            }
+            return session.getHost();
+        }
+        long backoff = 0L;
+        while(!this.isShutdown()) {
+            try {
+                // Blocks up to wait seconds until access grants are pending
+                final Map<String, Set<String>> pending = api.apiVaultsUsersRequiringAccessGrantGet(wait);
+                backoff = 0L;
+                if(this.isShutdown()) {
+                    break;
+                }
+                if(!this.grant(pending) && isPending(pending)) {
+                    // Only candidates already ruled out remain which returns immediately
+                    log.debug("No new pending access grants. Delay next request by {}s", wait);
+                    if(this.await(TimeUnit.SECONDS.toMillis(wait))) {
+                        break;
+                    }
                 }
-                try {
-                    service.grantAccessToUsersRequiringAccessGrant(accessibleVault.getId(), userKeys);
+            }
+            catch(ApiException e) {
+                if(this.isShutdown()) {
+                    break;
+                }
+                switch(e.getCode()) {
+                    case HttpStatus.SC_UNAUTHORIZED:
+                    case HttpStatus.SC_FORBIDDEN:
+                        // Retry with next scheduler period
+                        throw new HubExceptionMappingService().map(e);
                 }
-                catch(ApiException | AccessException | SecurityFailure e) {
-                    log.warn("Grant access for vault {} failed with error {}", accessibleVault.getId(), e.getMessage());
-                    // Continue with next vault
+                backoff = Math.min(Math.max(backoff * 2, 1000L), MAXIMUM_BACKOFF);
+                log.warn("Failure {} waiting for pending access grants. Reconnect in {}ms", e.getMessage(), backoff);
+                if(this.await(backoff)) {
+                    break;
                 }
             }
         }
-        catch(ApiException e) {
-            throw new HubExceptionMappingService().map(e);
-        }
+        log.info("Stopped waiting for pending access grants for {}", session.getHost());
         return session.getHost();
     }
+
+    /**
+     * Grant access for vaults with pending users not already evaluated
+     *
+     * @param pending User IDs requiring access grant by vault ID
+     * @return False if no new candidates were found
+     */
+    private boolean grant(final Map<String, Set<String>> pending) throws BackgroundException {
+        if(System.currentTimeMillis() - timestamp > period) {
+            // Trust may have changed since
+            evaluated.clear();
+            timestamp = System.currentTimeMillis();
+        }
+        boolean found = false;
+        UserKeys userKeys = null;
+        GrantAccessServiceImpl service = null;
+        for(final Map.Entry<String, Set<String>> entry : pending.entrySet()) {
+            if(entry.getValue().isEmpty()) {
+                continue;
+            }
+            if(evaluated.containsKey(entry.getKey()) && evaluated.get(entry.getKey()).containsAll(entry.getValue())) {
+                log.debug("Skip users {} already evaluated for vault {}", entry.getValue(), entry.getKey());
+                continue;
+            }
+            found = true;
+            if(null == service) {
+                userKeys = session.getUserKeys(DeviceSetupCallback.disabled);
+                final VaultResourceApi vaults = new VaultResourceApi(session.getClient());
+                service = new GrantAccessServiceImpl(vaults, new VaultServiceImpl(vaults, session.getAccessTokens()), this.trust(), this.pool(),
+                        -1 == HostPreferencesFactory.get(session.getHost()).getInteger("katta.grant.chunk") ? GrantAccessServiceImpl.DEFAULT_CHUNK_SIZE :
+                                HostPreferencesFactory.get(session.getHost()).getInteger("katta.grant.chunk"),
+                        session.getVaultMetadata());
+            }
+            log.debug("Users {} requiring access grant for vault {}", entry.getValue(), entry.getKey());
+            try {
+                service.grantAccessToUsersRequiringAccessGrant(UUID.fromString(entry.getKey()), userKeys);
+            }
+            catch(ApiException | AccessException | SecurityFailure e) {
+                log.warn("Grant access for vault {} failed with error {}", entry.getKey(), e.getMessage());
+                // Continue with next vault
+            }
+            // Users still pending after this pass are not trusted or failed
+            evaluated.put(entry.getKey(), entry.getValue());
+        }
+        if(!found) {
+            log.debug("No pending access grants for {}", session.getHost());
+        }
+        return found;
+    }
+
+    /**
+     * @param pending User IDs requiring access grant by vault ID
+     * @return False for empty response after waiting timed out
+     */
+    private static boolean isPending(final Map<String, Set<String>> pending) {
+        for(Set<String> users : pending.values()) {
+            if(!users.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param millis Delay
+     * @return True if shutdown while waiting
+     */
+    private boolean await(final long millis) {
+        try {
+            return shutdown.await(millis, TimeUnit.MILLISECONDS);
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+
+    private boolean isShutdown() {
+        return shutdown.getCount() == 0 || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Stop waiting for pending access grants. A request in-flight is aborted when the HTTP client is closed on logout.
+     */
+    @Override
+    public void shutdown(final boolean gracefully) {
+        shutdown.countDown();
+        synchronized(this) {
+            if(pool != null) {
+                pool.shutdown();
+                pool = null;
+            }
+        }
+        super.shutdown(gracefully);
+    }
 }
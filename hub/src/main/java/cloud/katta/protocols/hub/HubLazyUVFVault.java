@@ -0,0 +1,563 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import ch.cyberduck.core.DefaultExceptionMappingService;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.UnsupportedException;
+import ch.cyberduck.core.features.Vault;
+import ch.cyberduck.core.io.StatusOutputStream;
+import ch.cyberduck.core.vault.VaultCredentials;
+import ch.cyberduck.core.vault.VaultMetadataProvider;
+import ch.cyberduck.core.vault.VaultProvider;
+import ch.cyberduck.core.vault.VaultVersion;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Placeholder for a vault listed from the Hub only. Storage connection and cryptors are initialized on first feature request.
+ * When evicted after being idle, storage connection and cryptors are closed and initialized again on next feature request.
+ * A lease is held for the duration of every feature call and until a returned stream is closed. Vaults with active leases
+ * are never evicted. Vaults are loaded without holding the monitor used for eviction.
+ */
+public class HubLazyUVFVault extends HubUVFVault {
+    private static final Logger log = LogManager.getLogger(HubLazyUVFVault.class);
+
+    /**
+     * Length of vault ID in string representation
+     */
+    private static final int VAULT_ID_LENGTH = 36;
+
+    private final HubSession session;
+    private final VaultProvider provider;
+
+    /**
+     * Loaded vault with bucket as home
+     */
+    private volatile Vault delegate;
+
+    /**
+     * Bucket of vault once loaded retained after eviction
+     */
+    private volatile Path bucket;
+
+    /**
+     * Milliseconds since epoch of last feature access
+     */
+    private volatile long accessed = System.currentTimeMillis();
+
+    /**
+     * Number of feature calls and streams in use
+     */
+    private int leases;
+
+    /**
+     * In-flight load shared with concurrent callers
+     */
+    private final AtomicReference<CompletableFuture<Vault>> loading = new AtomicReference<>();
+
+    /**
+     * @param session     Hub connection
+     * @param provider    Provider to load vault on first access
+     * @param placeholder Path with vault ID as name
+     */
+    public HubLazyUVFVault(final HubSession session, final VaultProvider provider, final Path placeholder) {
+        this(session, provider, placeholder, null);
+    }
+
+    /**
+     * @param session     Hub connection
+     * @param provider    Provider to load vault again after eviction
+     * @param placeholder Path with vault ID as name
+     * @param loaded      Vault already loaded or null
+     */
+    public HubLazyUVFVault(final HubSession session, final VaultProvider provider, final Path placeholder, final Vault loaded) {
+        super(null, placeholder);
+        this.session = session;
+        this.provider = provider;
+        this.delegate = loaded;
+        this.bucket = null == loaded ? null : loaded.getHome();
+    }
+
+    /**
+     * @return True if vault has been loaded
+     */
+    public boolean isLoaded() {
+        return delegate != null;
+    }
+
+    /**
+     * Load vault with storage connection if not already loaded or wait for load already in-flight. The monitor is not
+     * held while loading.
+     *
+     * @return Loaded vault
+     */
+    public Vault load() throws BackgroundException {
+        final Vault loaded = delegate;
+        if(loaded != null) {
+            return loaded;
+        }
+        final CompletableFuture<Vault> future = new CompletableFuture<>();
+        final CompletableFuture<Vault> existing = loading.updateAndGet(current -> null == current ? future : current);
+        if(existing != future) {
+            log.debug("Await in-flight load of vault {}", this.getHome());
+            try {
+                return existing.get();
+            }
+            catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConnectionCanceledException(e);
+            }
+            catch(ExecutionException e) {
+                if(e.getCause() instanceof BackgroundException) {
+                    throw (BackgroundException) e.getCause();
+                }
+                throw new DefaultExceptionMappingService().map(e.getCause());
+            }
+        }
+        try {
+            final Vault current = delegate;
+            if(current != null) {
+                // Completed by other thread in the meantime
+                future.complete(current);
+                return current;
+            }
+            log.debug("Load vault {} on first access", this.getHome());
+            final Vault vault = provider.load(session, this.getHome(), new VaultVersion(VaultVersion.Type.UVF), new VaultCredentials());
+            synchronized(this) {
+                delegate = vault;
+                bucket = vault.getHome();
+                accessed = System.currentTimeMillis();
+            }
+            log.info("Loaded vault {} for placeholder {}", vault.getHome(), this.getHome());
+            future.complete(vault);
+            return vault;
+        }
+        catch(BackgroundException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        }
+        finally {
+            loading.compareAndSet(future, null);
+        }
+    }
+
+    @Override
+    public boolean contains(final Path file) {
+        if(super.contains(file)) {
+            return true;
+        }
+        final Vault vault = delegate;
+        if(vault != null) {
+            return vault.contains(file);
+        }
+        // Evicted
+        final Path home = bucket;
+        return home != null && (new SimplePathPredicate(home).test(file) || file.isChild(home));
+    }
+
+    /**
+     * Failure loading the vault is deferred to the first call on the returned feature to pass through to the caller
+     */
+    @Override
+    public <T> T getFeature(final Session<?> hub, final Class<T> type, final T proxy) throws UnsupportedException {
+        final Vault vault;
+        final T feature;
+        try {
+            vault = this.acquire();
+        }
+        catch(BackgroundException e) {
+            if(!type.isInterface()) {
+                final UnsupportedException failure = new UnsupportedException(e.getMessage());
+                failure.initCause(e);
+                throw failure;
+            }
+            // Load again on feature call
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    new LeasedFeature<>(hub, type, proxy, null, null)));
+        }
+        // Lease held until feature is handed out
+        try {
+            feature = vault.getFeature(hub, type, proxy);
+        }
+        finally {
+            this.release();
+        }
+        if(null == feature || !type.isInterface()) {
+            return feature;
+        }
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new LeasedFeature<>(hub, type, proxy, vault, feature)));
+    }
+
+    /**
+     * Load vault if evicted and take lease preventing eviction
+     *
+     * @return Loaded vault
+     */
+    private Vault acquire() throws BackgroundException {
+        while(true) {
+            synchronized(this) {
+                if(delegate != null) {
+                    leases++;
+                    accessed = System.currentTimeMillis();
+                    return delegate;
+                }
+            }
+            try {
+                this.load();
+            }
+            catch(BackgroundException e) {
+                log.warn("Failure {} loading vault {}", e.getMessage(), this.getHome());
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Return lease and start idle time
+     */
+    private synchronized void release() {
+        leases--;
+        accessed = System.currentTimeMillis();
+    }
+
+    /**
+     * Close storage connection, destroy cryptors and remove decrypted vault metadata and access token cached for the
+     * Hub connection if not accessed within idle time and no leases are held. Loaded again on next feature request.
+     *
+     * @param ttl Idle time in milliseconds
+     * @return True if evicted
+     */
+    public boolean evict(final long ttl) {
+        final Vault evicted;
+        synchronized(this) {
+            if(null == delegate) {
+                return false;
+            }
+            if(leases > 0) {
+                log.debug("Skip eviction of vault {} with {} leases", delegate.getHome(), leases);
+                return false;
+            }
+            if(System.currentTimeMillis() - accessed <= ttl) {
+                return false;
+            }
+            log.info("Evict vault {} idle since {}", delegate.getHome(), accessed);
+            evicted = delegate;
+            delegate = null;
+        }
+        evicted.close();
+        if(session != null) {
+            final UUID vaultId = this.getVaultId();
+            if(vaultId != null) {
+                session.getVaultMetadata().invalidate(vaultId);
+                session.getAccessTokens().invalidate(vaultId);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Vault ID from name of placeholder or null
+     */
+    private UUID getVaultId() {
+        final String name = this.getHome().getName();
+        if(name.length() < VAULT_ID_LENGTH) {
+            return null;
+        }
+        try {
+            return UUID.fromString(name.substring(name.length() - VAULT_ID_LENGTH));
+        }
+        catch(IllegalArgumentException e) {
+            log.warn("No vault ID in name of {}", this.getHome());
+            return null;
+        }
+    }
+
+    /**
+     * Vault template is only created with a storage connection of its own
+     */
+    @Override
+    public void create(final Session<?> session, final String region, final VaultMetadataProvider metadata) throws BackgroundException {
+        throw new UnsupportedException(String.format("Create placeholder %s", this.getHome()));
+    }
+
+    /**
+     * Load vault from provider instead of initializing cryptors for placeholder
+     */
+    @Override
+    public void load(final Session<?> session, final VaultMetadataProvider metadata) throws BackgroundException {
+        this.load();
+    }
+
+    /**
+     * Storage connection of loaded vault is not shared and closed with cryptors
+     */
+    @Override
+    public void destroy() {
+        this.close();
+    }
+
+    @Override
+    public void close() {
+        final Vault loaded;
+        synchronized(this) {
+            loaded = delegate;
+            delegate = null;
+        }
+        if(loaded != null) {
+            log.debug("Close loaded vault {} for placeholder {}", loaded.getHome(), this.getHome());
+            loaded.close();
+        }
+    }
+
+    /**
+     * Forwards to feature of currently loaded vault with lease held for the duration of the call or until a returned
+     * stream is closed. Replaces references to the placeholder and files within with paths in the bucket of the loaded
+     * vault. Failure loading the vault is thrown from the call.
+     */
+    private final class LeasedFeature<T> implements InvocationHandler {
+        private final Session<?> hub;
+        private final Class<T> type;
+        private final T proxy;
+
+        /**
+         * Vault feature was obtained from
+         */
+        private Vault vault;
+        private T feature;
+
+        private LeasedFeature(final Session<?> hub, final Class<T> type, final T proxy, final Vault vault, final T feature) {
+            this.hub = hub;
+            this.type = type;
+            this.proxy = proxy;
+            this.vault = vault;
+            this.feature = feature;
+        }
+
+        @Override
+        public Object invoke(final Object instance, final Method method, final Object[] args) throws Throwable {
+            if(method.getDeclaringClass() == Object.class) {
+                // No lease required
+                switch(method.getName()) {
+                    case "equals":
+                        return instance == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(instance);
+                    default:
+                        return this.toString();
+                }
+            }
+            try {
+                return this.forward(method, args);
+            }
+            catch(Throwable e) {
+                throw declared(method, e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object forward(final Method method, final Object[] args) throws Throwable {
+            final Vault loaded = HubLazyUVFVault.this.acquire();
+            boolean streaming = false;
+            try {
+                final T target = this.resolve(loaded);
+                if(null == target) {
+                    throw new UnsupportedException(type.getSimpleName());
+                }
+                if(args != null) {
+                    for(int i = 0; i < args.length; i++) {
+                        args[i] = HubLazyUVFVault.this.rebase(args[i], loaded.getHome());
+                    }
+                }
+                final Object result;
+                try {
+                    result = method.invoke(target, args);
+                }
+                catch(InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if(result instanceof InputStream && method.getReturnType() == InputStream.class) {
+                    streaming = true;
+                    return new LeasedInputStream((InputStream) result);
+                }
+                if(result instanceof StatusOutputStream && method.getReturnType() == StatusOutputStream.class) {
+                    streaming = true;
+                    return new LeasedOutputStream<>((StatusOutputStream<Object>) result);
+                }
+                return result;
+            }
+            finally {
+                if(!streaming) {
+                    HubLazyUVFVault.this.release();
+                }
+            }
+        }
+
+        /**
+         * @return Feature of vault loaded again after eviction
+         */
+        private synchronized T resolve(final Vault loaded) throws UnsupportedException {
+            if(loaded != vault) {
+                log.debug("Obtain feature {} from reloaded vault {}", type, loaded.getHome());
+                feature = loaded.getFeature(hub, type, proxy);
+                vault = loaded;
+            }
+            return feature;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("LeasedFeature{");
+            sb.append("type=").append(type.getSimpleName());
+            sb.append(", home=").append(HubLazyUVFVault.this.getHome());
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+
+    /**
+     * @param method Feature method called
+     * @param e      Failure from feature call or loading vault
+     * @return Failure if declared by method or wrapped otherwise
+     */
+    private static Throwable declared(final Method method, final Throwable e) {
+        if(e instanceof RuntimeException || e instanceof Error) {
+            return e;
+        }
+        for(Class<?> type : method.getExceptionTypes()) {
+            if(type.isInstance(e)) {
+                return e;
+            }
+        }
+        log.warn("Wrap failure {} not declared by {}", e, method);
+        return new IllegalStateException(e.getMessage(), e);
+    }
+
+    /**
+     * @param arg    Argument of feature call
+     * @param bucket Bucket of loaded vault
+     * @return Argument with placeholder and files within replaced by paths in bucket
+     */
+    @SuppressWarnings("unchecked")
+    private Object rebase(final Object arg, final Path bucket) {
+        if(arg instanceof Path) {
+            return this.rebase((Path) arg, bucket);
+        }
+        if(arg instanceof Map) {
+            final Map<Object, Object> rebased = new LinkedHashMap<>();
+            for(Map.Entry<Object, Object> entry : ((Map<Object, Object>) arg).entrySet()) {
+                rebased.put(this.rebase(entry.getKey(), bucket), entry.getValue());
+            }
+            return rebased;
+        }
+        if(arg instanceof List) {
+            final List<Object> rebased = new ArrayList<>();
+            for(Object item : (List<Object>) arg) {
+                rebased.add(this.rebase(item, bucket));
+            }
+            return rebased;
+        }
+        return arg;
+    }
+
+    private Path rebase(final Path file, final Path bucket) {
+        final Path placeholder = this.getHome();
+        if(placeholder.equals(file)) {
+            return bucket;
+        }
+        if(!file.isChild(placeholder)) {
+            return file;
+        }
+        return new Path(this.rebase(file.getParent(), bucket), file.getName(), file.getType(), file.attributes());
+    }
+
+    /**
+     * Return lease once when closed
+     */
+    private final class Lease {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private void release() {
+            if(released.compareAndSet(false, true)) {
+                HubLazyUVFVault.this.release();
+            }
+        }
+    }
+
+    private final class LeasedInputStream extends FilterInputStream {
+        private final Lease lease = new Lease();
+
+        private LeasedInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            }
+            finally {
+                lease.release();
+            }
+        }
+    }
+
+    private final class LeasedOutputStream<Reply> extends StatusOutputStream<Reply> {
+        private final Lease lease = new Lease();
+        private final StatusOutputStream<Reply> out;
+
+        private LeasedOutputStream(final StatusOutputStream<Reply> out) {
+            super(out);
+            this.out = out;
+        }
+
+        @Override
+        public Reply getStatus() throws BackgroundException {
+            return out.getStatus();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            }
+            finally {
+                lease.release();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("HubLazyUVFVault{");
+        sb.append("home=").append(this.getHome());
+        sb.append(", delegate=").append(delegate);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -38,25 +38,46 @@ import ch.cyberduck.core.synchronization.ComparisonService;
 import ch.cyberduck.core.synchronization.DefaultComparisonService;
 import ch.cyberduck.core.synchronization.ETagComparisonService;
 import ch.cyberduck.core.threading.CancelCallback;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.vault.VaultProvider;
 
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.security.interfaces.ECPublicKey;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import cloud.katta.client.ApiException;
+import cloud.katta.client.HubConnectionMetrics;
+import cloud.katta.client.HubResponseCache;
+import cloud.katta.client.metrics.HubExchangeInterceptor;
 import cloud.katta.client.HubApiClient;
 import cloud.katta.client.api.ConfigResourceApi;
+import cloud.katta.client.api.StorageProfileResourceApi;
 import cloud.katta.client.api.UsersResourceApi;
 import cloud.katta.client.model.ConfigDto;
 import cloud.katta.client.model.UserDto;
+import cloud.katta.client.model.VaultDto;
 import cloud.katta.core.DeviceSetupCallback;
+import cloud.katta.core.KeyPairPoolDeviceSetupCallback;
 import cloud.katta.crypto.DeviceKeys;
+import cloud.katta.crypto.KeyPairPool;
 import cloud.katta.crypto.UserKeys;
 import cloud.katta.protocols.hub.exceptions.HubExceptionMappingService;
 import cloud.katta.protocols.hub.serializer.HubConfigDtoDeserializer;
@@ -82,15 +103,100 @@ public class HubSession extends HttpSession<HubApiClient> implements AutoCloseab
      * Interceptor for OpenID connect flow
      */
     private OAuth2RequestInterceptor authorizationService;
+
+    /**
+     * Client for OAuth token endpoint
+     */
+    private CloseableHttpClient oauth;
+
+    /**
+     * Authorization set once configuration is applied
+     */
+    private HubDeferredAuthorization authorization;
+
+    /**
+     * Bundled protocol to apply configuration from server to
+     */
+    private Protocol bundled;
+
+    /**
+     * Responses revalidated with conditional requests for operations in katta.http.cache.operations
+     */
+    private final HubResponseCache responses = new HubResponseCache(null == preferences.getProperty("katta.http.cache.operations") ?
+            HubResponseCache.DEFAULT_OPERATIONS : Arrays.stream(StringUtils.split(preferences.getProperty("katta.http.cache.operations"), ","))
+            .map(String::trim).collect(Collectors.toSet()));
+
+    /**
+     * Requests and connections opened by clients of this connection
+     */
+    private final HubConnectionMetrics metrics = new HubConnectionMetrics();
     private VaultProvider provider;
 
-    private ConfigDto config;
+    private volatile ConfigDto config;
 
-    private final ExpiringObjectHolder<UserKeys> userKeysHolder
-            = new ExpiringObjectHolder<>(-1L == preferences.getLong("katta.userkeys.ttl") ? 60000 : preferences.getLong("katta.userkeys.ttl"));
+    /**
+     * User keys refreshed in background ahead of expiry
+     */
+    private final HubUserKeysHolder userKeysHolder = new HubUserKeysHolder(
+            -1L == preferences.getLong("katta.userkeys.ttl") ? 60000L : preferences.getLong("katta.userkeys.ttl"),
+            -1L == preferences.getLong("katta.userkeys.refresh.margin") ? 10000L : preferences.getLong("katta.userkeys.refresh.margin"),
+            () -> this.pair(DeviceSetupCallback.disabled));
 
     private ListService vaults;
 
+    /**
+     * Storage profiles shared by vaults
+     */
+    private HubStorageProfileCache profiles;
+
+    /**
+     * Decrypted vault metadata wiped on logout
+     */
+    private final HubVaultMetadataCache metadata = new HubVaultMetadataCache();
+
+    /**
+     * Decrypted vault access tokens wiped on logout
+     */
+    private final HubAccessTokenCache tokens = new HubAccessTokenCache(
+            -1L == preferences.getLong("katta.accesstoken.ttl") ? 60000L : preferences.getLong("katta.accesstoken.ttl"));
+
+    /**
+     * Timing of vault unlocks
+     */
+    private final HubVaultUnlockTraces unlocks = new HubVaultUnlockTraces();
+
+    /**
+     * Encrypted local snapshot of connection state. Null if disabled
+     */
+    private HubSessionSnapshotStore snapshots;
+
+    /**
+     * Snapshot restored on connect until listed once
+     */
+    private final AtomicReference<HubSessionSnapshot> pending = new AtomicReference<>();
+
+    /**
+     * Snapshot last restored or saved
+     */
+    private volatile HubSessionSnapshot latest;
+
+    /**
+     * User name and public device key to save snapshot
+     */
+    private volatile String username;
+    private volatile ECPublicKey deviceKey;
+
+    /**
+     * Pairing and revalidation of snapshot in background
+     */
+    private ThreadPool pool;
+
+    /**
+     * Key pairs generated in background for new device, user and vault keys when katta.keypair.pool.size is set.
+     * Unused key pairs are destroyed on logout
+     */
+    private KeyPairPool keyPairs = KeyPairPool.disabled;
+
     public HubSession(final Host host, final X509TrustManager trust, final X509KeyManager key) {
         super(host, trust, key);
     }
@@ -103,37 +209,93 @@ public class HubSession extends HttpSession<HubApiClient> implements AutoCloseab
     protected HubApiClient connect(final ProxyFinder proxy, final HostKeyCallback key,
                                    final LoginCallback prompt, final CancelCallback cancel) throws BackgroundException {
         final HttpClientBuilder configuration = builder.build(proxy, this, prompt);
-        final Protocol bundled = host.getProtocol();
-        // Use REST API for bootstrapping via /api/config
-        final HubApiClient client = new HubApiClient(host, configuration.build());
+        configuration.addInterceptorLast(metrics);
+        // Client for OAuth token endpoint without authorization
+        oauth = configuration.build();
+        // Single client for bootstrapping and API requests to reuse connections
+        authorization = new HubDeferredAuthorization();
+        configuration.setServiceUnavailableRetryStrategy(authorization);
+        configuration.addInterceptorLast(authorization);
+        // Record bytes and retries per API operation
+        final HubExchangeInterceptor exchanges = new HubExchangeInterceptor();
+        configuration.addInterceptorLast((HttpRequestInterceptor) exchanges);
+        configuration.addInterceptorLast((HttpResponseInterceptor) exchanges);
+        final HubApiClient api = new HubApiClient(host, configuration.build(), responses);
+        bundled = host.getProtocol();
+        if(-1 != preferences.getInteger("katta.keypair.pool.size")) {
+            // Generate key pairs while bootstrapping and authorizing ahead of pairing on login
+            keyPairs = new KeyPairPool(preferences.getInteger("katta.keypair.pool.size"),
+                    -1L == preferences.getLong("katta.keypair.pool.ttl") ? 600000L : preferences.getLong("katta.keypair.pool.ttl"));
+            keyPairs.fill();
+        }
         try {
-            // Obtain OAuth configuration
-            config = new ConfigResourceApi(client).apiConfigGet();
-            final int minHubApiLevel = HostPreferencesFactory.get(host).getInteger("cloud.katta.min_api_level");
-            final Integer apiLevel = config.getApiLevel();
-            if(apiLevel == null || apiLevel < minHubApiLevel) {
-                final String detail = String.format("Client requires API level at least %s, found %s, for hub %s", minHubApiLevel, apiLevel, host);
-                log.error(detail);
-                throw new InteroperabilityException(LocaleFactory.localizedString("Login failed", "Credentials"), detail);
+            final HubSessionSnapshot restored = this.restore();
+            if(restored != null) {
+                log.debug("Use configuration from snapshot taken at {} for {}", restored.timestamp(), host);
+                try {
+                    this.configure(api, restored.config(), prompt);
+                    config = restored.config();
+                    latest = restored;
+                    pending.set(restored);
+                }
+                catch(BackgroundException e) {
+                    log.warn("Discard snapshot with failure {} applying configuration for host {}", e.getMessage(), host.getHostname());
+                    this.discard();
+                }
             }
-            final Profile profile = new Profile(bundled, new HubConfigDtoDeserializer(config));
-            log.debug("Apply profile {} to bookmark {}", profile, host);
-            host.setProtocol(profile);
-            // Save for lookup in keychain on reconnect
-            host.setProperty(Profile.OAUTH_CLIENT_ID_KEY, profile.getOAuthClientId());
-            host.setProperty(Profile.OAUTH_AUTHORIZATION_URL_KEY, profile.getOAuthAuthorizationUrl());
-            host.setProperty(Profile.OAUTH_TOKEN_URL_KEY, profile.getOAuthTokenUrl());
+            if(null == pending.get()) {
+                // Obtain OAuth configuration via REST API for bootstrapping via /api/config
+                config = this.bootstrap(api);
+                this.configure(api, config, prompt);
+            }
+        }
+        catch(BackgroundException e) {
+            api.getHttpClient().close();
+            this.release(oauth);
+            keyPairs.close();
+            keyPairs = KeyPairPool.disabled;
+            throw e;
+        }
+        provider = new HubUVFVaultProvider(proxy, prompt);
+        vaults = new HubVaultListService(this, provider);
+        return api;
+    }
+
+    /**
+     * Retrieve configuration from server without authorization
+     */
+    private ConfigDto bootstrap(final HubApiClient api) throws BackgroundException {
+        try {
+            return new ConfigResourceApi(api).apiConfigGet();
         }
         catch(ApiException e) {
             throw new HubExceptionMappingService().map(e);
         }
-        finally {
-            client.getHttpClient().close();
+    }
+
+    /**
+     * Apply OAuth configuration from server to bookmark and setup authorization endpoint
+     *
+     * @param config Configuration from server or snapshot
+     * @throws InteroperabilityException API level of server not supported
+     */
+    private void configure(final HubApiClient api, final ConfigDto config, final LoginCallback prompt) throws BackgroundException {
+        final int minHubApiLevel = HostPreferencesFactory.get(host).getInteger("cloud.katta.min_api_level");
+        final Integer apiLevel = config.getApiLevel();
+        if(apiLevel == null || apiLevel < minHubApiLevel) {
+            final String detail = String.format("Client requires API level at least %s, found %s, for hub %s", minHubApiLevel, apiLevel, host);
+            log.error(detail);
+            throw new InteroperabilityException(LocaleFactory.localizedString("Login failed", "Credentials"), detail);
         }
-        provider = new HubUVFVaultProvider(proxy, prompt);
-        vaults = new HubVaultListService(this, provider);
+        final Profile profile = new Profile(bundled, new HubConfigDtoDeserializer(config));
+        log.debug("Apply profile {} to bookmark {}", profile, host);
+        host.setProtocol(profile);
+        // Save for lookup in keychain on reconnect
+        host.setProperty(Profile.OAUTH_CLIENT_ID_KEY, profile.getOAuthClientId());
+        host.setProperty(Profile.OAUTH_AUTHORIZATION_URL_KEY, profile.getOAuthAuthorizationUrl());
+        host.setProperty(Profile.OAUTH_TOKEN_URL_KEY, profile.getOAuthTokenUrl());
         // Setup authorization endpoint from configuration
-        authorizationService = new OAuth2RequestInterceptor(configuration.build(), host,
+        authorizationService = new OAuth2RequestInterceptor(oauth, host,
                 host.getProtocol().getOAuthTokenUrl(),
                 host.getProtocol().getOAuthAuthorizationUrl(),
                 host.getProtocol().getOAuthClientId(),
@@ -142,22 +304,88 @@ public class HubSession extends HttpSession<HubApiClient> implements AutoCloseab
                 host.getProtocol().isOAuthPKCE(), prompt)
                 .setFlowType(OAuth2AuthorizationService.FlowType.valueOf(host.getProtocol().getAuthorization()))
                 .setRedirectUri(host.getProtocol().getOAuthRedirectUrl());
-        configuration.setServiceUnavailableRetryStrategy(new CustomServiceUnavailableRetryStrategy(host,
+        authorization.set(authorizationService, new CustomServiceUnavailableRetryStrategy(host,
                 new ExecutionCountServiceUnavailableRetryStrategy(new OAuth2ErrorResponseInterceptor(host, authorizationService))));
-        configuration.addInterceptorLast(authorizationService);
-        return new HubApiClient(host, configuration.build());
+        profiles = new HubStorageProfileCache(new StorageProfileResourceApi(api), config,
+                -1L == preferences.getLong("katta.storageprofile.ttl") ? 300000 : preferences.getLong("katta.storageprofile.ttl"));
+    }
+
+    private void release(final CloseableHttpClient client) {
+        try {
+            client.close();
+        }
+        catch(IOException e) {
+            log.warn("Failure {} closing client", e.getMessage());
+        }
     }
 
     @Override
     public void login(final LoginCallback prompt, final CancelCallback cancel) throws BackgroundException {
-        final Credentials credentials = host.getCredentials();
-        credentials.setOauth(authorizationService.validate(credentials.getOauth()));
         // Ensure device key is available
-        final DeviceSetupCallback setup = prompt.getFeature(DeviceSetupCallback.class);
+        final DeviceSetupCallback setup;
+        if(KeyPairPool.disabled == keyPairs) {
+            setup = prompt.getFeature(DeviceSetupCallback.class);
+        }
+        else {
+            // Pool filled since connect
+            setup = new KeyPairPoolDeviceSetupCallback(prompt.getFeature(DeviceSetupCallback.class), keyPairs);
+        }
         log.debug("Configured with setup prompt {}", setup);
-        userKeysHolder.set(this.pair(setup));
-        log.debug("Retrieved user keys for host {}", host.getHostname());
+        if(snapshots != null) {
+            pool = ThreadPoolFactory.get("snapshot", 1);
+        }
+        if(pending.get() != null) {
+            try {
+                // Revalidate configuration from snapshot before authorization and pairing
+                this.revalidate(prompt);
+                this.authorize(setup);
+            }
+            catch(ConnectionCanceledException e) {
+                throw e;
+            }
+            catch(BackgroundException e) {
+                log.warn("Retry with configuration from server after failure {} with snapshot for host {}", e.getMessage(), host.getHostname());
+                this.discard();
+                config = this.bootstrap(client);
+                this.configure(client, config, prompt);
+                this.authorize(setup);
+            }
+        }
+        else {
+            this.authorize(setup);
+        }
         access = new HubGrantAccessSchedulerService(this);
+        if(-1L != preferences.getLong("katta.vault.idle.ttl") && registry instanceof HubVaultRegistry) {
+            ((HubVaultRegistry) registry).schedule(preferences.getLong("katta.vault.idle.ttl"));
+        }
+    }
+
+    /**
+     * Validate OAuth tokens and retrieve user keys. Pairing is deferred to background when connected from snapshot.
+     */
+    private void authorize(final DeviceSetupCallback setup) throws BackgroundException {
+        final Credentials credentials = host.getCredentials();
+        credentials.setOauth(authorizationService.validate(credentials.getOauth()));
+        if(pending.get() != null) {
+            log.debug("Defer pairing in background for host {}", host.getHostname());
+            pool.execute(() -> {
+                try {
+                    // Subsequent callers wait for pairing to complete
+                    userKeysHolder.get(() -> this.pair(setup));
+                    log.debug("Retrieved user keys for host {}", host.getHostname());
+                }
+                catch(BackgroundException e) {
+                    log.warn("Failure {} pairing in background for host {}", e.getMessage(), host.getHostname());
+                    // Connect without snapshot next time
+                    this.discard();
+                }
+                return null;
+            });
+        }
+        else {
+            userKeysHolder.set(this.pair(setup));
+            log.debug("Retrieved user keys for host {}", host.getHostname());
+        }
     }
 
     private UserKeys pair(final DeviceSetupCallback setup) throws BackgroundException {
@@ -166,6 +394,13 @@ public class HubSession extends HttpSession<HubApiClient> implements AutoCloseab
             // Setup parameter allows generating new device key
             final DeviceKeys deviceKeys = new DeviceKeysServiceImpl(keychain).getOrCreateDeviceKeys(host, user, setup);
             log.debug("Retrieved device keys for user {}", user.getId());
+            if(snapshots != null && username != null && !username.equals(user.getName())) {
+                log.warn("Discard snapshot for different user {}", username);
+                snapshots.delete();
+                latest = null;
+            }
+            username = user.getName();
+            deviceKey = deviceKeys.getEcKeyPair().getPublic();
             // Setup parameter allows generating account and user keys or prompt for account key and device name
             final UserKeys userKeys = new UserKeysServiceImpl(this).getOrCreateUserKeys(host, user, deviceKeys, setup);
             log.debug("Retrieved user keys for user {}", user.getId());
@@ -182,11 +417,96 @@ public class HubSession extends HttpSession<HubApiClient> implements AutoCloseab
         }
     }
 
+    /**
+     * Read snapshot encrypted with device key from keychain
+     *
+     * @return Null if disabled or no snapshot is found for the device key
+     */
+    private HubSessionSnapshot restore() {
+        if(!preferences.getBoolean("katta.snapshot.enable")) {
+            return null;
+        }
+        snapshots = new HubSessionSnapshotStore(host);
+        final String name = snapshots.getUser();
+        if(null == name) {
+            return null;
+        }
+        try {
+            final DeviceKeys deviceKeys = new DeviceKeysServiceImpl(keychain).getDeviceKeys(host, new UserDto().name(name));
+            if(!DeviceKeys.validate(deviceKeys)) {
+                log.warn("Discard snapshot with no device key found for {}", name);
+                snapshots.delete();
+                return null;
+            }
+            final HubSessionSnapshot snapshot = snapshots.load(deviceKeys.getEcKeyPair().getPrivate());
+            if(null == snapshot || null == snapshot.config()) {
+                return null;
+            }
+            username = name;
+            deviceKey = deviceKeys.getEcKeyPair().getPublic();
+            return snapshot;
+        }
+        catch(SecurityFailure e) {
+            log.warn("Failure {} retrieving device key for snapshot", e.getMessage());
+            snapshots.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Compare configuration from snapshot with server and apply configuration from server. Discard snapshot if OAuth
+     * configuration or API level has changed.
+     */
+    private void revalidate(final LoginCallback prompt) throws BackgroundException {
+        // Retrieve unauthenticated as token endpoint may have changed
+        authorization.set(null, null);
+        final ConfigDto fresh = this.bootstrap(client);
+        final Profile profile = new Profile(bundled, new HubConfigDtoDeserializer(fresh));
+        if(!Objects.equals(fresh.getApiLevel(), config.getApiLevel())
+                || !Objects.equals(profile.getOAuthClientId(), host.getProtocol().getOAuthClientId())
+                || !Objects.equals(profile.getOAuthAuthorizationUrl(), host.getProtocol().getOAuthAuthorizationUrl())
+                || !Objects.equals(profile.getOAuthTokenUrl(), host.getProtocol().getOAuthTokenUrl())) {
+            log.warn("Discard snapshot with configuration changed for host {}", host.getHostname());
+            this.discard();
+        }
+        config = fresh;
+        this.configure(client, fresh, prompt);
+    }
+
+    /**
+     * Delete snapshot and list vaults from server
+     */
+    private void discard() {
+        if(snapshots != null) {
+            snapshots.delete();
+        }
+        latest = null;
+        pending.set(null);
+    }
+
     @Override
     protected void logout() {
         if(access != null) {
             access.shutdown(false);
         }
+        if(registry instanceof HubVaultRegistry) {
+            ((HubVaultRegistry) registry).cancel();
+        }
+        if(profiles != null) {
+            profiles.invalidateAll();
+        }
+        metadata.invalidateAll();
+        tokens.invalidateAll();
+        responses.invalidateAll();
+        userKeysHolder.invalidate();
+        log.debug("Close connection with {}", metrics);
+        if(oauth != null) {
+            this.release(oauth);
+        }
+        if(pool != null) {
+            pool.shutdown(true);
+        }
+        keyPairs.close();
         client.getHttpClient().close();
     }
 
@@ -205,17 +525,96 @@ public class HubSession extends HttpSession<HubApiClient> implements AutoCloseab
         return config;
     }
 
+    /**
+     * @return Storage profiles cached for this connection
+     */
+    public HubStorageProfileCache getStorageProfiles() {
+        return profiles;
+    }
+
+    /**
+     * @return Decrypted vault metadata cached for this connection
+     */
+    public HubVaultMetadataCache getVaultMetadata() {
+        return metadata;
+    }
+
+    /**
+     * @return Decrypted vault access tokens cached for this connection
+     */
+    public HubAccessTokenCache getAccessTokens() {
+        return tokens;
+    }
+
+    /**
+     * @return Key pairs generated in background for new vault keys
+     */
+    public KeyPairPool getKeyPairs() {
+        return keyPairs;
+    }
+
+    /**
+     * @return Timing of vault unlocks for this connection
+     */
+    public HubVaultUnlockTraces getUnlockTraces() {
+        return unlocks;
+    }
+
+    /**
+     * @return Vaults from snapshot restored on connect. Null if there is no snapshot or the vaults have already been
+     * listed once
+     */
+    public List<VaultDto> pollSnapshot() {
+        final HubSessionSnapshot snapshot = pending.getAndSet(null);
+        return null == snapshot ? null : snapshot.vaults();
+    }
+
+    /**
+     * Save accessible vaults in snapshot in background if changed
+     *
+     * @param accessible Vaults listed from server
+     */
+    public void saveSnapshot(final List<VaultDto> accessible) {
+        if(null == pool || null == username || null == deviceKey) {
+            return;
+        }
+        final HubSessionSnapshot previous = latest;
+        if(previous != null && !previous.isModified(accessible)) {
+            log.debug("Skip saving unchanged snapshot");
+            return;
+        }
+        final HubSessionSnapshot snapshot = new HubSessionSnapshot(config, accessible);
+        latest = snapshot;
+        final String user = username;
+        final ECPublicKey key = deviceKey;
+        pool.execute(() -> {
+            snapshots.save(snapshot, user, key);
+            return null;
+        });
+    }
+
+    /**
+     * Run task on background thread of this connection when snapshot is enabled
+     *
+     * @param task Task
+     */
+    public void background(final Callable<Void> task) {
+        if(null == pool) {
+            return;
+        }
+        pool.execute(task);
+    }
+
     /**
      *
      * @return Destroyed keys after login
      */
     public UserKeys getUserKeys(final DeviceSetupCallback setup) throws BackgroundException {
-        if(userKeysHolder.get() == null) {
+        return userKeysHolder.get(() -> {
             final UserKeys keys = this.pair(setup);
             log.debug("Retrieved keys for host {}", host.getHostname());
-            userKeysHolder.set(keys);
-        }
-        return userKeysHolder.get();
+            return keys;
+        });
     }
 
     @Override
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import org.cryptomator.cryptolib.common.MessageDigestSupplier;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import cloud.katta.client.model.ConfigDto;
+import cloud.katta.client.model.VaultDto;
+import cloud.katta.crypto.JWEPayload;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.io.BaseEncoding;
+
+/**
+ * State of a Hub connection saved locally to allow reconnecting without bootstrapping from the server first. Contains
+ * the server configuration and the last listing of accessible vaults with a digest of name and vault metadata of each
+ * vault to detect changes when revalidating.
+ */
+public class HubSessionSnapshot extends JWEPayload {
+
+    /**
+     * Milliseconds since epoch when snapshot was taken
+     */
+    @JsonProperty("timestamp")
+    long timestamp;
+
+    @JsonProperty("config")
+    ConfigDto config;
+
+    /**
+     * Accessible vaults without metadata
+     */
+    @JsonProperty("vaults")
+    List<VaultDto> vaults;
+
+    /**
+     * Digest of name and encrypted vault metadata by vault ID
+     */
+    @JsonProperty("validators")
+    Map<String, String> validators;
+
+    public HubSessionSnapshot() {
+    }
+
+    /**
+     * @param config Server configuration
+     * @param vaults Accessible vaults or null if not yet listed
+     */
+    public HubSessionSnapshot(final ConfigDto config, final List<VaultDto> vaults) {
+        this.timestamp = System.currentTimeMillis();
+        this.config = config;
+        this.vaults = new ArrayList<>();
+        this.validators = new HashMap<>();
+        if(vaults != null) {
+            for(final VaultDto vault : vaults) {
+                // Omit encrypted metadata and key material
+                this.vaults.add(new VaultDto()
+                        .id(vault.getId())
+                        .name(vault.getName())
+                        .description(vault.getDescription())
+                        .creationTime(vault.getCreationTime())
+                        .archived(vault.getArchived()));
+                this.validators.put(vault.getId().toString(), digest(vault));
+            }
+        }
+    }
+
+    public long timestamp() {
+        return timestamp;
+    }
+
+    public ConfigDto config() {
+        return config;
+    }
+
+    public List<VaultDto> vaults() {
+        return null == vaults ? Collections.emptyList() : vaults;
+    }
+
+    public Map<String, String> validators() {
+        return null == validators ? Collections.emptyMap() : validators;
+    }
+
+    /**
+     * @param vaults Accessible vaults listed from server
+     * @return True if the listing differs in vaults or vault metadata from this snapshot
+     */
+    public boolean isModified(final List<VaultDto> vaults) {
+        return !this.validators().equals(new HubSessionSnapshot(config, vaults).validators());
+    }
+
+    private static String digest(final VaultDto vault) {
+        final Supplier<MessageDigest> instance = MessageDigestSupplier.SHA256.instance();
+        return BaseEncoding.base16().encode(instance.get().digest(String.format("%s\n%s", vault.getName(), vault.getUvfMetadataFile())
+                .getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.text.ParseException;
+
+import cloud.katta.crypto.JWE;
+import cloud.katta.crypto.JWEPayload;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEObject;
+
+/**
+ * Snapshot of Hub connection saved in application support directory encrypted with ECDH-ES for the device key. The
+ * snapshot can only be read on this device with the device key from the keychain. The user name is saved as key ID to
+ * allow lookup of the device key prior login.
+ */
+public class HubSessionSnapshotStore {
+    private static final Logger log = LogManager.getLogger(HubSessionSnapshotStore.class);
+
+    private final Path file;
+
+    public HubSessionSnapshotStore(final Host host) {
+        this(Paths.get(SupportDirectoryFinderFactory.get().find().getAbsolute(), "Snapshots", String.format("%s.jwe", host.getUuid())));
+    }
+
+    public HubSessionSnapshotStore(final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * @return User name saved as key ID or null if no snapshot is found
+     */
+    public String getUser() {
+        if(!Files.exists(file)) {
+            log.debug("No snapshot found in {}", file);
+            return null;
+        }
+        try {
+            return JWEObject.parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8)).getHeader().getKeyID();
+        }
+        catch(IOException | ParseException e) {
+            log.warn("Failure {} reading snapshot {}", e.getMessage(), file);
+            this.delete();
+            return null;
+        }
+    }
+
+    /**
+     * @param deviceKey Private device key
+     * @return Decrypted snapshot or null if missing or not readable with device key
+     */
+    public HubSessionSnapshot load(final ECPrivateKey deviceKey) {
+        if(!Files.exists(file)) {
+            return null;
+        }
+        try {
+            final HubSessionSnapshot snapshot = JWEPayload.fromJSON(
+                    JWE.decryptEcdhEs(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), deviceKey).toString(), HubSessionSnapshot.class);
+            log.debug("Loaded snapshot from {} taken at {}", file, snapshot.timestamp());
+            return snapshot;
+        }
+        catch(IOException | ParseException | JOSEException e) {
+            log.warn("Failure {} decrypting snapshot {}", e.getMessage(), file);
+            this.delete();
+            return null;
+        }
+    }
+
+    /**
+     * @param snapshot  Connection state
+     * @param user      User name to lookup device key
+     * @param deviceKey Public device key
+     */
+    public void save(final HubSessionSnapshot snapshot, final String user, final ECPublicKey deviceKey) {
+        try {
+            final String jwe = JWE.ecdhEsEncrypt(snapshot, user, deviceKey);
+            Files.createDirectories(file.getParent());
+            final Path temporary = Files.createTempFile(file.getParent(), null, ".tmp");
+            Files.write(temporary, jwe.getBytes(StandardCharsets.UTF_8));
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved snapshot to {}", file);
+        }
+        catch(IOException | JOSEException e) {
+            log.warn("Failure {} saving snapshot {}", e.getMessage(), file);
+        }
+    }
+
+    public void delete() {
+        try {
+            if(Files.deleteIfExists(file)) {
+                log.debug("Deleted snapshot {}", file);
+            }
+        }
+        catch(IOException e) {
+            log.warn("Failure {} deleting snapshot {}", e.getMessage(), file);
+        }
+    }
+}
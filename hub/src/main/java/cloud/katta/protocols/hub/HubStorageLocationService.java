@@ -14,13 +14,10 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
 import cloud.katta.client.ApiException;
-import cloud.katta.client.api.StorageProfileResourceApi;
 import cloud.katta.client.model.SettingsDto;
-import cloud.katta.client.model.StorageProfileDto;
 import cloud.katta.crypto.uvf.UVFMetadataPayload;
 import cloud.katta.crypto.uvf.VaultMetadataAutomaticAccessGrantDto;
 import cloud.katta.crypto.uvf.VaultMetadataStorageDto;
@@ -44,10 +41,7 @@ public class HubStorageLocationService implements Location {
     public Set<Name> getLocations(final Path file) {
         try {
             final Set<Name> regions = new HashSet<>();
-            final List<StorageProfileDto> storageProfileDtos = new StorageProfileResourceApi(session.getClient())
-                    .apiStorageprofileGet(false);
-            for(StorageProfileDto storageProfileDto : storageProfileDtos) {
-                final StorageProfileDtoWrapper storageProfile = StorageProfileDtoWrapper.coerce(storageProfileDto);
+            for(StorageProfileDtoWrapper storageProfile : session.getStorageProfiles().getAll()) {
                 for(String region : storageProfile.getRegions()) {
                     regions.add(new StorageLocation(storageProfile.getId().toString(), region, storageProfile.getName()));
                 }
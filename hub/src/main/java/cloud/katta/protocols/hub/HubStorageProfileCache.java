@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import ch.cyberduck.core.ExpiringObjectHolder;
+import ch.cyberduck.core.s3.S3Protocol;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import cloud.katta.client.ApiException;
+import cloud.katta.client.api.StorageProfileResourceApi;
+import cloud.katta.client.model.ConfigDto;
+import cloud.katta.client.model.StorageProfileDto;
+import cloud.katta.model.StorageProfileDtoWrapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Session scoped cache for storage profiles shared by all vaults of a Hub connection
+ */
+public class HubStorageProfileCache {
+    private static final Logger log = LogManager.getLogger(HubStorageProfileCache.class);
+
+    private final StorageProfileResourceApi api;
+    private final ConfigDto config;
+
+    /**
+     * Storage profiles by ID
+     */
+    private final Cache<UUID, Entry> profiles;
+
+    /**
+     * All storage profiles not archived
+     */
+    private final ExpiringObjectHolder<List<StorageProfileDtoWrapper>> all;
+
+    /**
+     * @param api    Storage profile API of Hub connection
+     * @param config Hub configuration
+     * @param ttl    Time to live in milliseconds
+     */
+    public HubStorageProfileCache(final StorageProfileResourceApi api, final ConfigDto config, final long ttl) {
+        this.api = api;
+        this.config = config;
+        this.profiles = CacheBuilder.newBuilder().expireAfterWrite(ttl, TimeUnit.MILLISECONDS).build();
+        this.all = new ExpiringObjectHolder<>(ttl);
+    }
+
+    /**
+     * @param id Storage profile ID
+     * @return Cached storage profile or retrieved from server when missing or expired
+     * @throws ApiException Failure retrieving storage profile from server
+     */
+    public StorageProfileDtoWrapper get(final UUID id) throws ApiException {
+        return this.load(id).dto;
+    }
+
+    /**
+     * @param id Storage profile ID
+     * @return Protocol profile for S3 connection to storage
+     * @throws ApiException Failure retrieving storage profile from server
+     */
+    public HubStorageProfile getProfile(final UUID id) throws ApiException {
+        return this.load(id).profile;
+    }
+
+    /**
+     * @return All storage profiles not archived
+     * @throws ApiException Failure retrieving storage profiles from server
+     */
+    public List<StorageProfileDtoWrapper> getAll() throws ApiException {
+        final List<StorageProfileDtoWrapper> cached = all.get();
+        if(cached != null) {
+            return cached;
+        }
+        final List<StorageProfileDtoWrapper> wrappers = new ArrayList<>();
+        for(final StorageProfileDto dto : api.apiStorageprofileGet(false)) {
+            final StorageProfileDtoWrapper wrapper = StorageProfileDtoWrapper.coerce(dto);
+            wrappers.add(wrapper);
+            profiles.put(wrapper.getId(), new Entry(wrapper, new HubStorageProfile(new S3Protocol(), config, wrapper)));
+        }
+        log.debug("Retrieved {} storage profiles", wrappers.size());
+        all.set(Collections.unmodifiableList(wrappers));
+        return all.get();
+    }
+
+    private Entry load(final UUID id) throws ApiException {
+        try {
+            // Concurrent requests for the same profile wait for a single retrieval
+            return profiles.get(id, () -> {
+                log.debug("Retrieve storage profile {}", id);
+                final StorageProfileDtoWrapper wrapper = StorageProfileDtoWrapper.coerce(api.apiStorageprofileProfileIdGet(id));
+                return new Entry(wrapper, new HubStorageProfile(new S3Protocol(), config, wrapper));
+            });
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof ApiException) {
+                throw (ApiException) e.getCause();
+            }
+            throw new ApiException(e.getCause());
+        }
+    }
+
+    /**
+     * Remove storage profile from cache
+     *
+     * @param id Storage profile ID
+     */
+    public void invalidate(final UUID id) {
+        log.debug("Invalidate storage profile {}", id);
+        profiles.invalidate(id);
+        all.set(null);
+    }
+
+    /**
+     * Remove all storage profiles from cache
+     */
+    public void invalidateAll() {
+        log.debug("Invalidate all storage profiles");
+        profiles.invalidateAll();
+        all.set(null);
+    }
+
+    private static final class Entry {
+        private final StorageProfileDtoWrapper dto;
+        private final HubStorageProfile profile;
+
+        private Entry(final StorageProfileDtoWrapper dto, final HubStorageProfile profile) {
+            this.dto = dto;
+            this.profile = profile;
+        }
+    }
+}
@@ -81,6 +81,14 @@ public class HubUVFVault extends UVFVault {
         super.close();
     }
 
+    /**
+     * Destroy cryptors without closing storage connection shared with other vaults
+     */
+    public synchronized void destroy() {
+        log.debug("Destroy cryptors for vault {}", this.getHome());
+        super.close();
+    }
+
     @Override
     public void create(final Session<?> session, final String region, final VaultMetadataProvider metadata) throws BackgroundException {
         // Upload vault template to storage
@@ -5,6 +5,7 @@
 package cloud.katta.protocols.hub;
 
 import ch.cyberduck.core.Credentials;
+import ch.cyberduck.core.DefaultExceptionMappingService;
 import ch.cyberduck.core.DefaultPathAttributes;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.HostKeyCallback;
@@ -18,6 +19,7 @@ import ch.cyberduck.core.Session;
 import ch.cyberduck.core.TemporaryAccessTokens;
 import ch.cyberduck.core.UUIDRandomStringService;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.features.Vault;
 import ch.cyberduck.core.oauth.OAuth2RequestInterceptor;
@@ -29,6 +31,8 @@ import ch.cyberduck.core.ssl.X509KeyManager;
 import ch.cyberduck.core.ssl.X509TrustManager;
 import ch.cyberduck.core.sts.STSAssumeRoleWithWebIdentityCredentialsStrategy;
 import ch.cyberduck.core.threading.CancelCallback;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.vault.VaultCredentials;
 import ch.cyberduck.core.vault.VaultException;
 import ch.cyberduck.core.vault.VaultProvider;
@@ -42,13 +46,19 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.joda.time.DateTime;
 
+import java.security.interfaces.ECPublicKey;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
 import cloud.katta.client.ApiException;
 import cloud.katta.client.api.SettingsResourceApi;
-import cloud.katta.client.api.StorageProfileResourceApi;
 import cloud.katta.client.api.VaultResourceApi;
 import cloud.katta.client.model.SettingsDto;
 import cloud.katta.client.model.UserDto;
@@ -62,12 +72,19 @@ import cloud.katta.crypto.uvf.VaultMetadataStorageDto;
 import cloud.katta.model.StorageProfileDtoWrapper;
 import cloud.katta.protocols.hub.exceptions.HubExceptionMappingService;
 import cloud.katta.protocols.s3.STSChainedAssumeRoleRequestInterceptor;
+import cloud.katta.protocols.s3.STSCredentialsRejectedInterceptor;
 import cloud.katta.workflows.VaultServiceImpl;
 import cloud.katta.workflows.exceptions.SecurityFailure;
+import com.nimbusds.jose.JWEObjectJSON;
 
 public class HubUVFVaultProvider implements VaultProvider {
     private static final Logger log = LogManager.getLogger(HubUVFVaultProvider.class);
 
+    /**
+     * Maximum number of stages run concurrently when creating a vault
+     */
+    private static final int CREATE_CONCURRENCY = 4;
+
     private final ProxyFinder proxy;
     private final LoginCallback prompt;
 
@@ -88,89 +105,64 @@ public class HubUVFVaultProvider implements VaultProvider {
 
     @Override
     public Vault create(final Session<?> session, final String region, final Path name, final VaultVersion metadata, final VaultCredentials passphrase) throws BackgroundException {
+        return this.create(session, region, name, UUID.fromString(new UUIDRandomStringService().random()), null);
+    }
+
+    /**
+     * Create vault in Hub and storage
+     *
+     * @param region  Storage location identifier
+     * @param name    Vault name
+     * @param vaultId Vault ID
+     * @param shared  Storage connected for location shared with other vaults or null to connect for this vault only.
+     *                Not closed on failure.
+     * @return Vault with storage connection
+     */
+    public HubUVFVault create(final Session<?> session, final String region, final Path name, final UUID vaultId, final Storage shared) throws BackgroundException {
+        final HubSession hub = HubSession.coerce(session);
+        final HubVaultCreateTimings timings = new HubVaultCreateTimings(vaultId);
+        final ThreadPool pool = ThreadPoolFactory.get("create", CREATE_CONCURRENCY);
+        final List<Future<?>> futures = new ArrayList<>();
         try {
             final HubStorageLocationService.StorageLocation location = HubStorageLocationService.StorageLocation.fromIdentifier(region);
+            final DeviceSetupCallback setup = prompt.getFeature(DeviceSetupCallback.class);
+            // Stages independent of storage configuration
+            final Future<SettingsDto> settings = this.execute(pool, futures, timings, "settings",
+                    () -> new SettingsResourceApi(hub.getClient()).apiSettingsGet());
+            final Future<HubVaultKeys> keys = this.execute(pool, futures, timings, "keys", () -> HubVaultKeys.create(hub.getKeyPairs()));
+            final Future<UserDto> me = this.execute(pool, futures, timings, "me", hub::getMe);
+            final Future<UserKeys> userKeys = this.execute(pool, futures, timings, "user-keys", () -> hub.getUserKeys(setup));
             // Determine actual bucket name from storage location
-            final StorageProfileDtoWrapper storageProfile = StorageProfileDtoWrapper.coerce(new StorageProfileResourceApi(HubSession.coerce(session).getClient())
-                    .apiStorageprofileProfileIdGet(UUID.fromString(location.getProfile())));
-            final UUID vaultId = UUID.fromString(new UUIDRandomStringService().random());
-            final S3Session storage;
+            final StorageProfileDtoWrapper storageProfile;
+            final HubStorageProfile profile;
+            try (HubVaultCreateTimings.Stage ignored = timings.stage("storage-profile")) {
+                storageProfile = hub.getStorageProfiles().get(UUID.fromString(location.getProfile()));
+                profile = hub.getStorageProfiles().getProfile(UUID.fromString(location.getProfile()));
+            }
             final Path bucket = new Path(storageProfile.getBucketPrefix() + vaultId, EnumSet.of(Path.Type.volume, Path.Type.directory),
                     new DefaultPathAttributes()
                             .setRegion(region)
                             .setDisplayname(name.getName()));
-            final SettingsDto settings = new SettingsResourceApi(HubSession.coerce(session).getClient()).apiSettingsGet();
-            final UVFMetadataPayload payload;
-            switch(storageProfile.getProtocol()) {
-                case S3_STATIC: {
-                    log.debug("Use static S3 credentials for vault {}", vaultId);
-                    // Prompt for static tokens to create vault in storage
-                    payload = location.toPayload(bucket,
-                            prompt.prompt(session.getHost(), StringUtils.EMPTY,
-                                    LocaleFactory.localizedString("Provide additional login credentials", "Credentials"),
-                                    LocaleFactory.localizedString("Access Key ID and Secret Access Key with permissions to create bucket required", "Hub"),
-                                    new LoginOptions(new S3Protocol())
-                                            .user(true)
-                                            .password(true)
-                                            .save(false).keychain(false)), settings);
-                    storage = new S3Session(new Host(new HubStorageProfile(
-                            new S3Protocol(), HubSession.coerce(session).getConfig(), storageProfile),
-                            prompt.prompt(session.getHost(), StringUtils.EMPTY,
-                                    LocaleFactory.localizedString("Provide additional login credentials", "Credentials"),
-                                    LocaleFactory.localizedString("Access Key ID and Secret Access Key with permissions to access bucket required", "Hub"),
-                                    new LoginOptions(new S3Protocol())
-                                            .user(true)
-                                            .password(true)
-                                            .save(false).keychain(false))).setRegion(location.getRegion()),
-                            session.getFeature(X509TrustManager.class), session.getFeature(X509KeyManager.class));
-                    break;
-                }
-                case S3_STS: {
-                    // OAuth Tokens shared with request interceptor of Hub connection
-                    final Credentials oauthCredentials = session.getHost().getCredentials();
-                    final Credentials stsCredentials = new Credentials().setOauth(oauthCredentials.getOauth());
-                    final Host host = new Host(new HubStorageProfile(
-                            new S3Protocol(), HubSession.coerce(session).getConfig(), storageProfile), stsCredentials) {
-                        @Override
-                        public String getProperty(final String key) {
-                            if(Profile.STS_ROLE_ARN_PROPERTY_KEY.equals(key)) {
-                                final String arn = storageProfile.getStsRoleCreateBucketClient();
-                                log.debug("Use STS role ARN {} for vault {}", arn, vaultId);
-                                return arn;
-                            }
-                            return super.getProperty(key);
-                        }
-                    }.setRegion(location.getRegion());
-                    payload = location.toPayload(bucket, settings);
-                    storage = new S3Session(host, session.getFeature(X509TrustManager.class), session.getFeature(X509KeyManager.class)) {
-                        @Override
-                        protected S3CredentialsStrategy configureCredentialsStrategy(final HttpClientBuilder configuration, final LoginCallback prompt) {
-                            final OAuth2RequestInterceptor interceptor = session.getFeature(OAuth2RequestInterceptor.class);
-                            log.debug("Configure with shared OAuth interceptor for vault {}", vaultId);
-                            configuration.addInterceptorLast(interceptor);
-                            return new STSAssumeRoleWithWebIdentityCredentialsStrategy(interceptor,
-                                    host, session.getFeature(X509TrustManager.class), session.getFeature(X509KeyManager.class), prompt) {
-                                @Override
-                                public TemporaryAccessTokens refresh(final Credentials credentials) throws BackgroundException {
-                                    return super.refresh(oauthCredentials);
-                                }
-                            };
-                        }
-                    };
-                    break;
-                }
-                default:
-                    log.error("Unsupported storage configuration {} for vault {}", storageProfile.getProtocol(), vaultId);
-                    throw new VaultException(storageProfile.getProtocol().toString());
+            final Storage storage = null == shared ? this.configure(session, location, storageProfile, profile) : shared;
+            final Future<Void> open;
+            if(null == shared) {
+                // Connect to storage while creating vault in Hub
+                open = this.execute(pool, futures, timings, "open", () -> {
+                    storage.getSession().open(proxy, HostKeyCallback.noop, prompt, CancelCallback.noop);
+                    log.debug("Connected to storage backend for vault {}", vaultId);
+                    return null;
+                });
+            }
+            else {
+                log.debug("Use shared storage {} for vault {}", storage, vaultId);
+                open = null;
             }
-            log.debug("Configured storage backend for vault {}", vaultId);
-            storage.open(proxy, HostKeyCallback.noop, prompt, CancelCallback.noop);
-            log.debug("Connected to storage backend for vault {}", vaultId);
             try {
-                final HubUVFVault vault = new HubUVFVault(storage, bucket);
-                final HubVaultKeys keys = HubVaultKeys.create();
+                final UVFMetadataPayload payload = null == storage.getCredentials() ?
+                        location.toPayload(bucket, await(settings)) : location.toPayload(bucket, storage.getCredentials(), await(settings));
+                final HubVaultKeys vaultKeys = await(keys);
                 try (final HubVaultMetadataUVFProvider vaultMetadataProvider = new HubVaultMetadataUVFProvider(
-                        payload, HubSession.coerce(session).getClient().getBasePath(), vaultId, keys.serialize())) {
+                        payload, hub.getClient().getBasePath(), vaultId, vaultKeys.serialize())) {
                     log.debug("Create vault with ID {}", vaultId);
                     final VaultDto vaultDto = new VaultDto()
                             .id(vaultId)
@@ -179,27 +171,43 @@ public class HubUVFVaultProvider implements VaultProvider {
                             .archived(false)
                             .creationTime(DateTime.now())
                             .uvfMetadataFile(vaultMetadataProvider.encrypt())
-                            .uvfKeySet(keys.serialize().toPublicJWKSet().toString());
+                            .uvfKeySet(vaultKeys.serialize().toPublicJWKSet().toString());
                     // Create vault in Hub
-                    final VaultResourceApi vaultResourceApi = new VaultResourceApi(HubSession.coerce(session).getClient());
+                    final VaultResourceApi vaultResourceApi = new VaultResourceApi(hub.getClient());
+                    final Host host = storage.getSession().getHost();
                     log.debug("Create vault request for ID {}", vaultId);
-                    vaultResourceApi.apiVaultsVaultIdPut(vaultId, vaultDto,
-                            storage.getHost().getProtocol().isRoleConfigurable() && !S3Session.isAwsHostname(storage.getHost().getHostname()),
-                            storage.getHost().getProtocol().isRoleConfigurable() && S3Session.isAwsHostname(storage.getHost().getHostname()));
-                    // Upload JWE
-                    log.debug("Grant access to vault {}", vaultId);
-                    final UserDto userDto = HubSession.coerce(session).getMe();
-                    final DeviceSetupCallback setup = prompt.getFeature(DeviceSetupCallback.class);
-                    final UserKeys userKeys = HubSession.coerce(session).getUserKeys(setup);
-                    // Share vault with myself including admin access with recovery key
-                    vaultResourceApi.apiVaultsVaultIdAccessTokensPost(vaultId, Collections.singletonMap(userDto.getId(),
-                            new UVFAccessTokenPayload(keys.memberKey(), keys.recoveryKey()).encryptForUser(userKeys.ecdhKeyPair().getPublic())));
-                    // Upload metadata to bucket
+                    try (HubVaultCreateTimings.Stage ignored = timings.stage("vault")) {
+                        vaultResourceApi.apiVaultsVaultIdPut(vaultId, vaultDto,
+                                host.getProtocol().isRoleConfigurable() && !S3Session.isAwsHostname(host.getHostname()),
+                                host.getProtocol().isRoleConfigurable() && S3Session.isAwsHostname(host.getHostname()));
+                    }
                     try {
-                        vault.create(session, location.getRegion(), vaultMetadataProvider);
+                        // Upload JWE
+                        log.debug("Grant access to vault {}", vaultId);
+                        final String userId = await(me).getId();
+                        final ECPublicKey userPublicKey = await(userKeys).ecdhKeyPair().getPublic();
+                        // Share vault with myself including admin access with recovery key while connecting to storage
+                        final Future<Void> grant = this.execute(pool, futures, timings, "access-token", () -> {
+                            vaultResourceApi.apiVaultsVaultIdAccessTokensPost(vaultId, Collections.singletonMap(userId,
+                                    new UVFAccessTokenPayload(vaultKeys.memberKey(), vaultKeys.recoveryKey()).encryptForUser(userPublicKey)));
+                            return null;
+                        });
+                        if(open != null) {
+                            await(open);
+                        }
+                        // Granted before bucket is created to leave no bucket behind when deleting vault after failure
+                        await(grant);
+                        // Upload metadata to bucket
+                        final HubUVFVault vault = new HubUVFVault(storage.getSession(), bucket);
+                        try (HubVaultCreateTimings.Stage ignored = timings.stage("template")) {
+                            vault.create(session, location.getRegion(), vaultMetadataProvider);
+                        }
+                        log.info("Created vault {}", timings);
+                        return vault;
                     }
                     catch(BackgroundException e) {
-                        log.warn("Delete vault {} after failure {} uploading template", vaultId, e);
+                        log.warn("Delete vault {} after failure {} creating vault", vaultId, e);
+                        drain(futures);
                         try {
                             vaultResourceApi.apiVaultsVaultIdDelete(vaultId);
                         }
@@ -208,11 +216,13 @@ public class HubUVFVaultProvider implements VaultProvider {
                         }
                         throw e;
                     }
-                    return vault;
                 }
             }
-            catch(SecurityFailure | ApiException e) {
-                storage.close();
+            catch(BackgroundException | SecurityFailure | ApiException e) {
+                drain(futures);
+                if(null == shared) {
+                    storage.getSession().close();
+                }
                 throw e;
             }
         }
@@ -222,34 +232,205 @@ public class HubUVFVaultProvider implements VaultProvider {
         catch(ApiException e) {
             throw new HubExceptionMappingService().map(e);
         }
+        finally {
+            pool.shutdown(false);
+        }
+    }
+
+    /**
+     * Connect to storage with permission to create buckets to share for creating multiple vaults in the same storage
+     * location. Prompts for static credentials if required by storage profile.
+     *
+     * @param region Storage location identifier
+     * @return Connected storage to close by caller
+     */
+    public Storage connect(final Session<?> session, final String region) throws BackgroundException {
+        final HubStorageLocationService.StorageLocation location = HubStorageLocationService.StorageLocation.fromIdentifier(region);
+        final Storage storage = this.configure(session, location,
+                HubSession.coerce(session).getStorageProfiles().get(UUID.fromString(location.getProfile())),
+                HubSession.coerce(session).getStorageProfiles().getProfile(UUID.fromString(location.getProfile())));
+        storage.getSession().open(proxy, HostKeyCallback.noop, prompt, CancelCallback.noop);
+        log.debug("Connected to {} for location {}", storage, location);
+        return storage;
+    }
+
+    /**
+     * Configure storage with permission to create buckets
+     */
+    private Storage configure(final Session<?> session, final HubStorageLocationService.StorageLocation location,
+                              final StorageProfileDtoWrapper storageProfile, final HubStorageProfile profile) throws BackgroundException {
+        switch(storageProfile.getProtocol()) {
+            case S3_STATIC: {
+                log.debug("Use static S3 credentials for location {}", location);
+                // Prompt for static tokens to create vault in storage
+                final Credentials credentials = prompt.prompt(session.getHost(), StringUtils.EMPTY,
+                        LocaleFactory.localizedString("Provide additional login credentials", "Credentials"),
+                        LocaleFactory.localizedString("Access Key ID and Secret Access Key with permissions to create bucket required", "Hub"),
+                        new LoginOptions(new S3Protocol())
+                                .user(true)
+                                .password(true)
+                                .save(false).keychain(false));
+                return new Storage(new S3Session(new Host(profile,
+                        prompt.prompt(session.getHost(), StringUtils.EMPTY,
+                                LocaleFactory.localizedString("Provide additional login credentials", "Credentials"),
+                                LocaleFactory.localizedString("Access Key ID and Secret Access Key with permissions to access bucket required", "Hub"),
+                                new LoginOptions(new S3Protocol())
+                                        .user(true)
+                                        .password(true)
+                                        .save(false).keychain(false))).setRegion(location.getRegion()),
+                        session.getFeature(X509TrustManager.class), session.getFeature(X509KeyManager.class)), credentials);
+            }
+            case S3_STS: {
+                // OAuth Tokens shared with request interceptor of Hub connection
+                final Credentials oauthCredentials = session.getHost().getCredentials();
+                final Credentials stsCredentials = new Credentials().setOauth(oauthCredentials.getOauth());
+                final Host host = new Host(profile, stsCredentials) {
+                    @Override
+                    public String getProperty(final String key) {
+                        if(Profile.STS_ROLE_ARN_PROPERTY_KEY.equals(key)) {
+                            final String arn = storageProfile.getStsRoleCreateBucketClient();
+                            log.debug("Use STS role ARN {} for location {}", arn, location);
+                            return arn;
+                        }
+                        return super.getProperty(key);
+                    }
+                }.setRegion(location.getRegion());
+                return new Storage(new S3Session(host, session.getFeature(X509TrustManager.class), session.getFeature(X509KeyManager.class)) {
+                    @Override
+                    protected S3CredentialsStrategy configureCredentialsStrategy(final HttpClientBuilder configuration, final LoginCallback prompt) {
+                        final OAuth2RequestInterceptor interceptor = session.getFeature(OAuth2RequestInterceptor.class);
+                        log.debug("Configure with shared OAuth interceptor for location {}", location);
+                        configuration.addInterceptorLast(interceptor);
+                        return new STSAssumeRoleWithWebIdentityCredentialsStrategy(interceptor,
+                                host, session.getFeature(X509TrustManager.class), session.getFeature(X509KeyManager.class), prompt) {
+                            @Override
+                            public TemporaryAccessTokens refresh(final Credentials credentials) throws BackgroundException {
+                                return super.refresh(oauthCredentials);
+                            }
+                        };
+                    }
+                }, null);
+            }
+            default:
+                log.error("Unsupported storage configuration {} for location {}", storageProfile.getProtocol(), location);
+                throw new VaultException(storageProfile.getProtocol().toString());
+        }
+    }
+
+    /**
+     * Run stage of vault creation in background
+     *
+     * @param futures Submitted stages to await on failure
+     */
+    private <T> Future<T> execute(final ThreadPool pool, final List<Future<?>> futures, final HubVaultCreateTimings timings,
+                                  final String name, final Callable<T> stage) {
+        final Future<T> future = pool.execute(() -> {
+            try (HubVaultCreateTimings.Stage ignored = timings.stage(name)) {
+                return stage.call();
+            }
+        });
+        futures.add(future);
+        return future;
+    }
+
+    private static <T> T await(final Future<T> future) throws BackgroundException {
+        try {
+            return future.get();
+        }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            if(e.getCause() instanceof ApiException) {
+                throw new HubExceptionMappingService().map((ApiException) e.getCause());
+            }
+            if(e.getCause() instanceof SecurityFailure) {
+                throw new VaultException(e.getCause().getMessage(), e.getCause());
+            }
+            throw new DefaultExceptionMappingService().map(e.getCause());
+        }
+    }
 
+    /**
+     * Wait for stages still running before compensating
+     */
+    private static void drain(final List<Future<?>> futures) {
+        for(Future<?> future : futures) {
+            try {
+                future.get();
+            }
+            catch(InterruptedException | ExecutionException e) {
+                log.debug("Ignore failure {} of stage", e.getMessage());
+            }
+        }
     }
 
     @Override
     public Vault load(final Session<?> session, final Path id, final VaultVersion metadata, final VaultCredentials passphrase) throws BackgroundException {
+        final UUID vaultId = UUID.fromString(id.getName());
+        final HubVaultUnlockTraces traces = HubSession.coerce(session).getUnlockTraces();
+        final HubVaultUnlockTrace trace = traces.start(vaultId);
+        try {
+            final Vault vault = this.load(session, id, vaultId, trace);
+            traces.complete(trace, null);
+            return vault;
+        }
+        catch(BackgroundException | RuntimeException e) {
+            traces.complete(trace, e);
+            throw e;
+        }
+    }
+
+    private Vault load(final Session<?> session, final Path id, final UUID vaultId, final HubVaultUnlockTrace trace) throws BackgroundException {
         try {
-            final UUID vaultId = UUID.fromString(id.getName());
             // Find storage configuration in vault metadata
             final DeviceSetupCallback setup = prompt.getFeature(DeviceSetupCallback.class);
             final VaultServiceImpl vaultService = new VaultServiceImpl(HubSession.coerce(session));
-            final UVFAccessTokenPayload accessToken = vaultService.getVaultAccessToken(vaultId, HubSession.coerce(session).getUserKeys(setup));
+            final UserKeys userKeys;
+            try (HubVaultUnlockTrace.Span span = trace.span("user-keys")) {
+                userKeys = HubSession.coerce(session).getUserKeys(setup);
+                span.success();
+            }
+            final UVFAccessTokenPayload accessToken;
+            try (HubVaultUnlockTrace.Span span = trace.span("access-token")) {
+                accessToken = vaultService.getVaultAccessToken(vaultId, userKeys);
+                span.success();
+            }
             log.debug("Retrieved vault access token for vault {}", vaultId);
+            final JWEObjectJSON jwe;
+            try (HubVaultUnlockTrace.Span span = trace.span("metadata")) {
+                jwe = vaultService.getVaultMetadata(vaultId);
+                span.success();
+            }
             try (final HubVaultMetadataUVFProvider vaultMetadataProvider = new HubVaultMetadataUVFProvider(
-                    vaultService.getVaultMetadata(vaultId), new HubVaultKeys(accessToken.key()))) {
-                final UVFMetadataPayload vaultMetadata = vaultMetadataProvider.getPayload();
+                    jwe, new HubVaultKeys(accessToken.key()))) {
+                final UVFMetadataPayload vaultMetadata;
+                try (HubVaultUnlockTrace.Span span = trace.span("decrypt")) {
+                    vaultMetadata = HubSession.coerce(session).getVaultMetadata().getPayload(vaultId, jwe, vaultMetadataProvider);
+                    span.success();
+                }
                 log.debug("Decrypted vault metadata for vault {}", vaultId);
                 final VaultMetadataStorageDto vaultStorageMetadata = vaultMetadata.storage();
                 final HubStorageLocationService.StorageLocation location = HubStorageLocationService.StorageLocation.fromMetadata(vaultStorageMetadata);
                 log.debug("Determined storage location {} for vault {}", location, vaultId);
-                final StorageProfileDtoWrapper storageProfile = StorageProfileDtoWrapper.coerce(new StorageProfileResourceApi(HubSession.coerce(session).getClient())
-                        .apiStorageprofileProfileIdGet(UUID.fromString(location.getProfile())));
+                final StorageProfileDtoWrapper storageProfile;
+                final HubStorageProfile profile;
+                try (HubVaultUnlockTrace.Span span = trace.span("storage-profile")) {
+                    storageProfile = HubSession.coerce(session).getStorageProfiles().get(UUID.fromString(location.getProfile()));
+                    profile = HubSession.coerce(session).getStorageProfiles().getProfile(UUID.fromString(location.getProfile()));
+                    span.success();
+                }
                 log.debug("Retrieved storage profile for vault {} with protocol {}", vaultId, storageProfile.getProtocol());
                 final S3Session storage;
+                // Parent of credentials exchange when opening storage connection
+                final AtomicReference<HubVaultUnlockTrace.Span> opening = new AtomicReference<>();
                 switch(storageProfile.getProtocol()) {
                     case S3_STATIC: {
                         final Credentials credentials = new Credentials(vaultStorageMetadata.getUsername(), vaultStorageMetadata.getPassword());
-                        storage = new S3Session(new Host(new HubStorageProfile(
-                                new S3Protocol(), HubSession.coerce(session).getConfig(), storageProfile), credentials).setRegion(location.getRegion()),
+                        storage = new S3Session(new Host(profile, credentials).setRegion(location.getRegion()),
                                 session.getFeature(X509TrustManager.class), session.getFeature(X509KeyManager.class));
                         log.debug("Use static S3 credentials from vault metadata for vault {}", vaultId);
                         break;
@@ -258,8 +439,7 @@ public class HubUVFVaultProvider implements VaultProvider {
                         // OAuth Tokens shared with request interceptor of Hub connection
                         final Credentials oauthCredentials = session.getHost().getCredentials();
                         final Credentials stsCredentials = new Credentials().setOauth(oauthCredentials.getOauth());
-                        final Host host = new Host(new HubStorageProfile(
-                                new S3Protocol(), HubSession.coerce(session).getConfig(), storageProfile), stsCredentials) {
+                        final Host host = new Host(profile, stsCredentials) {
                             @Override
                             public String getProperty(final String key) {
                                 if(Profile.STS_ROLE_ARN_PROPERTY_KEY.equals(key)) {
@@ -271,19 +451,37 @@ public class HubUVFVaultProvider implements VaultProvider {
                             }
                         }.setRegion(location.getRegion());
                         storage = new S3Session(host, session.getFeature(X509TrustManager.class), session.getFeature(X509KeyManager.class)) {
+                            private STSChainedAssumeRoleRequestInterceptor sts;
+
                             @Override
                             protected S3CredentialsStrategy configureCredentialsStrategy(final HttpClientBuilder configuration, final LoginCallback prompt) {
                                 final OAuth2RequestInterceptor interceptor = session.getFeature(OAuth2RequestInterceptor.class);
                                 log.debug("Configure with shared OAuth interceptor for vault {}", vaultId);
                                 configuration.addInterceptorLast(interceptor);
-                                return new STSChainedAssumeRoleRequestInterceptor(HubSession.coerce(session), interceptor, vaultId,
+                                sts = new STSChainedAssumeRoleRequestInterceptor(HubSession.coerce(session), interceptor, vaultId,
                                         storageProfile.getStsRoleAccessBucketAssumeRoleTaggedSession(), storageProfile.getStsSessionTag(),
                                         host, session.getFeature(X509TrustManager.class), session.getFeature(X509KeyManager.class)) {
                                     @Override
                                     public TemporaryAccessTokens refresh(final Credentials credentials) throws BackgroundException {
-                                        return super.refresh(oauthCredentials);
+                                        try (HubVaultUnlockTrace.Span span = trace.span("sts", opening.get())) {
+                                            final TemporaryAccessTokens tokens = super.refresh(oauthCredentials);
+                                            span.success();
+                                            return tokens;
+                                        }
                                     }
                                 };
+                                // Obtain new credentials when retrying after rejected
+                                configuration.addInterceptorLast(new STSCredentialsRejectedInterceptor(sts.getCache()));
+                                return sts;
+                            }
+
+                            @Override
+                            protected void logout() throws BackgroundException {
+                                if(sts != null) {
+                                    // Stop background refresh when closed or evicted
+                                    sts.getCache().invalidate();
+                                }
+                                super.logout();
                             }
                         };
                         break;
@@ -298,16 +496,19 @@ public class HubUVFVaultProvider implements VaultProvider {
                                 .setRegion(HubStorageLocationService.StorageLocation.fromMetadata(vaultStorageMetadata).getIdentifier())
                                 .setDisplayname(vaultStorageMetadata.getNickname())
                 );
-                try {
+                try (HubVaultUnlockTrace.Span span = trace.span("open")) {
+                    opening.set(span);
                     storage.open(proxy, HostKeyCallback.noop, prompt, CancelCallback.noop);
+                    span.success();
                 }
                 catch(BackgroundException e) {
                     throw new VaultUnlockCancelException(bucket, e);
                 }
                 log.debug("Connected to {} for vault {}", storage, vaultId);
                 final HubUVFVault vault = new HubUVFVault(storage, bucket);
-                try {
+                try (HubVaultUnlockTrace.Span span = trace.span("load")) {
                     vault.load(session, vaultMetadataProvider);
+                    span.success();
                 }
                 catch(BackgroundException e) {
                     storage.close();
@@ -327,4 +528,37 @@ public class HubUVFVaultProvider implements VaultProvider {
             throw new HubExceptionMappingService().map(e);
         }
     }
+
+    /**
+     * Storage connection with permission to create buckets in a storage location
+     */
+    public static final class Storage {
+        private final S3Session session;
+
+        /**
+         * Static credentials saved in vault metadata or null
+         */
+        private final Credentials credentials;
+
+        public Storage(final S3Session session, final Credentials credentials) {
+            this.session = session;
+            this.credentials = credentials;
+        }
+
+        public S3Session getSession() {
+            return session;
+        }
+
+        public Credentials getCredentials() {
+            return credentials;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Storage{");
+            sb.append("session=").append(session);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import ch.cyberduck.core.DefaultExceptionMappingService;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import cloud.katta.crypto.UserKeys;
+
+/**
+ * User keys with time to live refreshed in the background shortly before expiry. While a refresh is in progress,
+ * expired keys are still returned for a grace period. Refresh is only repeated when keys have been read since the
+ * previous refresh so that keys of an idle connection expire. Concurrent callers retrieving keys inline are coalesced
+ * into a single in-flight retrieval without holding the monitor. Keys retrieved while being invalidated or set are
+ * handed out to waiting callers but not cached.
+ */
+public class HubUserKeysHolder {
+    private static final Logger log = LogManager.getLogger(HubUserKeysHolder.class);
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "userkeys-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public interface Loader {
+        UserKeys load() throws BackgroundException;
+    }
+
+    /**
+     * Time to live in milliseconds
+     */
+    private final long ttl;
+
+    /**
+     * Refresh this many milliseconds before expiry and grace period to return expired keys while refreshing
+     */
+    private final long margin;
+
+    /**
+     * Obtain keys in background without prompt
+     */
+    private final Loader background;
+
+    private volatile UserKeys keys;
+    private volatile long timestamp;
+
+    /**
+     * Keys read since last refresh
+     */
+    private volatile boolean used;
+    private volatile boolean refreshing;
+
+    private ScheduledFuture<?> refresh;
+
+    /**
+     * Incremented when keys are set or invalidated
+     */
+    private long generation;
+
+    /**
+     * In-flight inline retrieval shared with concurrent callers
+     */
+    private final AtomicReference<CompletableFuture<UserKeys>> inflight = new AtomicReference<>();
+
+    /**
+     * @param ttl        Time to live in milliseconds
+     * @param margin     Refresh this many milliseconds before expiry
+     * @param background Obtain keys in background without prompt
+     */
+    public HubUserKeysHolder(final long ttl, final long margin, final Loader background) {
+        this.ttl = ttl;
+        this.margin = Math.min(margin, ttl / 2);
+        this.background = background;
+    }
+
+    /**
+     * @return Keys if not expired or still refreshing within grace period. Null otherwise
+     */
+    public UserKeys get() {
+        final UserKeys cached = keys;
+        if(null == cached) {
+            return null;
+        }
+        final long age = System.currentTimeMillis() - timestamp;
+        if(age < ttl) {
+            used = true;
+            return cached;
+        }
+        if(refreshing && age < ttl + margin) {
+            log.debug("Return expired user keys while refreshing");
+            used = true;
+            return cached;
+        }
+        return null;
+    }
+
+    /**
+     * @param loader Obtain keys inline when missing or expired
+     * @return Cached or new keys
+     */
+    public UserKeys get(final Loader loader) throws BackgroundException {
+        final UserKeys cached = this.get();
+        if(cached != null) {
+            return cached;
+        }
+        final CompletableFuture<UserKeys> future = new CompletableFuture<>();
+        final CompletableFuture<UserKeys> existing = inflight.updateAndGet(current -> null == current ? future : current);
+        if(existing != future) {
+            log.debug("Await in-flight retrieval of user keys");
+            try {
+                return existing.get();
+            }
+            catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConnectionCanceledException(e);
+            }
+            catch(ExecutionException e) {
+                if(e.getCause() instanceof BackgroundException) {
+                    throw (BackgroundException) e.getCause();
+                }
+                throw new DefaultExceptionMappingService().map(e.getCause());
+            }
+        }
+        try {
+            final UserKeys current = this.get();
+            if(current != null) {
+                // Completed by other thread in the meantime
+                future.complete(current);
+                return current;
+            }
+            log.debug("Retrieve user keys inline");
+            // Loader may prompt for device setup
+            final long started = this.generation();
+            final UserKeys fresh = loader.load();
+            synchronized(this) {
+                if(started == generation) {
+                    this.set(fresh);
+                    used = true;
+                }
+                else {
+                    log.debug("Skip caching user keys invalidated in the meantime");
+                }
+            }
+            future.complete(fresh);
+            return fresh;
+        }
+        catch(BackgroundException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        }
+        finally {
+            inflight.compareAndSet(future, null);
+        }
+    }
+
+    /**
+     * Set keys and schedule refresh before expiry
+     */
+    public synchronized void set(final UserKeys fresh) {
+        generation++;
+        keys = fresh;
+        timestamp = System.currentTimeMillis();
+        used = false;
+        this.cancel();
+        if(null == fresh) {
+            return;
+        }
+        refresh = scheduler.schedule(this::refresh, Math.max(0L, ttl - margin), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Discard keys and cancel scheduled refresh
+     */
+    public synchronized void invalidate() {
+        generation++;
+        keys = null;
+        this.cancel();
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    private void cancel() {
+        if(refresh != null) {
+            refresh.cancel(false);
+            refresh = null;
+        }
+    }
+
+    private void refresh() {
+        if(!used) {
+            log.debug("Skip refresh of user keys not read since last refresh");
+            return;
+        }
+        refreshing = true;
+        try {
+            log.debug("Refresh user keys ahead of expiry");
+            final long started = this.generation();
+            final UserKeys fresh = background.load();
+            synchronized(this) {
+                // Discard when invalidated or set after logout and login in the meantime
+                if(started == generation && keys != null) {
+                    // Refreshed again only if read until next refresh
+                    this.set(fresh);
+                }
+                else {
+                    log.debug("Skip refreshed user keys invalidated in the meantime");
+                }
+            }
+        }
+        catch(BackgroundException e) {
+            // Retrieve inline on next read after expiry
+            log.warn("Failure {} refreshing user keys", e.getMessage());
+        }
+        finally {
+            refreshing = false;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Duration of the stages to create a vault. Stages may run concurrently and are reported in the order completed.
+ */
+public class HubVaultCreateTimings {
+
+    private final UUID vaultId;
+    private final long start = System.nanoTime();
+
+    /**
+     * Duration in nanoseconds by stage name
+     */
+    private final Map<String, Long> stages = new LinkedHashMap<>();
+
+    public HubVaultCreateTimings(final UUID vaultId) {
+        this.vaultId = vaultId;
+    }
+
+    /**
+     * Start stage. Close returned stage when completed.
+     *
+     * @param name Stage name
+     */
+    public Stage stage(final String name) {
+        return new Stage(name);
+    }
+
+    /**
+     * @return Duration in milliseconds by stage name in order completed
+     */
+    public Map<String, Long> getStages() {
+        final Map<String, Long> millis = new LinkedHashMap<>();
+        synchronized(stages) {
+            for(Map.Entry<String, Long> stage : stages.entrySet()) {
+                millis.put(stage.getKey(), TimeUnit.NANOSECONDS.toMillis(stage.getValue()));
+            }
+        }
+        return millis;
+    }
+
+    /**
+     * @return Milliseconds since start
+     */
+    public long getElapsed() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("HubVaultCreateTimings{");
+        sb.append("vaultId=").append(vaultId);
+        sb.append(", elapsed=").append(this.getElapsed()).append("ms");
+        sb.append(", stages=").append(this.getStages());
+        sb.append('}');
+        return sb.toString();
+    }
+
+    public final class Stage implements AutoCloseable {
+        private final String name;
+        private final long start = System.nanoTime();
+
+        private Stage(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void close() {
+            synchronized(stages) {
+                stages.put(name, System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -5,14 +5,21 @@
 package cloud.katta.protocols.hub;
 
 import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DefaultExceptionMappingService;
+import ch.cyberduck.core.DefaultPathAttributes;
+import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Vault;
+import ch.cyberduck.core.preferences.HostPreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.vault.VaultCredentials;
 import ch.cyberduck.core.vault.VaultProvider;
 import ch.cyberduck.core.vault.VaultRegistry;
@@ -23,7 +30,15 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 import cloud.katta.client.ApiException;
 import cloud.katta.client.api.VaultResourceApi;
@@ -36,29 +51,65 @@ public class HubVaultListService implements ListService {
     private final HubSession session;
     private final VaultProvider provider;
 
+    /**
+     * Maximum number of vaults loaded in parallel. Load sequentially when not greater than 1.
+     */
+    private final int concurrency;
+
+    /**
+     * List placeholders and defer loading vaults until first access
+     */
+    private final boolean lazy;
+
+    /**
+     * Register loaded vaults to be evicted when idle
+     */
+    private final boolean evictable;
+
     public HubVaultListService(final HubSession session, final VaultProvider provider) {
+        this(session, provider, -1 == HostPreferencesFactory.get(session.getHost()).getInteger("katta.vaults.load.concurrency") ? 1 :
+                        HostPreferencesFactory.get(session.getHost()).getInteger("katta.vaults.load.concurrency"),
+                HostPreferencesFactory.get(session.getHost()).getBoolean("katta.vaults.load.lazy"));
+    }
+
+    public HubVaultListService(final HubSession session, final VaultProvider provider, final int concurrency, final boolean lazy) {
         this.session = session;
         this.provider = provider;
+        this.concurrency = concurrency;
+        this.lazy = lazy;
+        this.evictable = -1L != HostPreferencesFactory.get(session.getHost()).getLong("katta.vault.idle.ttl");
     }
 
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         if(directory.isRoot()) {
+            final List<VaultDto> restored = session.pollSnapshot();
+            if(restored != null) {
+                log.info("List {} vaults from snapshot", restored.size());
+                final AttributedList<Path> vaults = this.listPlaceholders(directory, restored, listener);
+                session.background(() -> {
+                    this.reconcile(directory, restored, listener);
+                    return null;
+                });
+                return vaults;
+            }
             try {
+                final List<VaultDto> accessible = this.accessible();
+                session.saveSnapshot(accessible);
+                if(lazy) {
+                    return this.listPlaceholders(directory, accessible, listener);
+                }
+                if(concurrency > 1 && accessible.size() > 1) {
+                    final AttributedList<Path> vaults = this.listConcurrently(directory, accessible, listener);
+                    this.summarize();
+                    return vaults;
+                }
                 final VaultRegistry registry = session.getRegistry();
                 final AttributedList<Path> vaults = new AttributedList<>();
-                for(final VaultDto vaultDto : new VaultResourceApi(session.getClient()).apiVaultsAccessibleGet(null)) {
-                    if(Boolean.TRUE.equals(vaultDto.getArchived())) {
-                        log.debug("Skip archived vault {}", vaultDto.getId());
-                        continue;
-                    }
-                    log.debug("Load vault {}", vaultDto.getId());
+                for(final VaultDto vaultDto : accessible) {
                     try {
-                        final Vault vault = provider.load(session,
-                                new Path(directory, vaultDto.getId().toString(), EnumSet.of(Path.Type.directory, Path.Type.volume)),
-                                new VaultVersion(VaultVersion.Type.UVF), new VaultCredentials());
-                        log.info("Loaded vault {}", vault.getHome());
-                        registry.add(vault);
+                        final Vault vault = this.load(directory, vaultDto);
+                        this.register(registry, directory, vaultDto, vault);
                         vaults.add(vault.getHome());
                         listener.chunk(directory, vaults);
                     }
@@ -66,6 +117,7 @@ public class HubVaultListService implements ListService {
                         log.warn("Skip vault {} with failure {} loading", vaultDto.getId(), e.getMessage());
                     }
                 }
+                this.summarize();
                 return vaults;
             }
             catch(ApiException e) {
@@ -75,6 +127,199 @@ public class HubVaultListService implements ListService {
         throw new NotfoundException(directory.getAbsolute());
     }
 
+    /**
+     * Log time spent per unlock step for vaults loaded in listing
+     */
+    private void summarize() {
+        final HubVaultUnlockTraces.Summary summary = session.getUnlockTraces().summary();
+        if(summary != null) {
+            log.info(summary);
+        }
+    }
+
+    /**
+     * @return Vaults accessible by user excluding archived vaults
+     */
+    private List<VaultDto> accessible() throws ApiException {
+        final List<VaultDto> accessible = new ArrayList<>();
+        for(final VaultDto vaultDto : new VaultResourceApi(session.getClient()).apiVaultsAccessibleGet(null)) {
+            if(Boolean.TRUE.equals(vaultDto.getArchived())) {
+                log.debug("Skip archived vault {}", vaultDto.getId());
+                continue;
+            }
+            accessible.add(vaultDto);
+        }
+        return accessible;
+    }
+
+    /**
+     * Revalidate vaults listed from snapshot with server. Register placeholders for vaults added since the snapshot was
+     * taken, close vaults no longer accessible and save the snapshot if changed. The listener is notified with the
+     * revalidated listing if changed.
+     */
+    private void reconcile(final Path directory, final List<VaultDto> restored, final ListProgressListener listener) {
+        try {
+            final List<VaultDto> accessible = this.accessible();
+            final Set<UUID> known = restored.stream().map(VaultDto::getId).collect(Collectors.toSet());
+            final List<VaultDto> added = accessible.stream().filter(vaultDto -> !known.contains(vaultDto.getId())).collect(Collectors.toList());
+            log.debug("Register {} vaults added since snapshot", added.size());
+            this.listPlaceholders(directory, added, new DisabledListProgressListener());
+            known.removeAll(accessible.stream().map(VaultDto::getId).collect(Collectors.toSet()));
+            if(!known.isEmpty()) {
+                log.warn("Close vaults {} from snapshot no longer accessible", known);
+                final VaultRegistry registry = session.getRegistry();
+                for(final VaultDto vaultDto : restored) {
+                    if(known.contains(vaultDto.getId())) {
+                        registry.close(toPlaceholder(directory, vaultDto));
+                    }
+                }
+            }
+            if(!added.isEmpty() || !known.isEmpty()) {
+                final AttributedList<Path> vaults = new AttributedList<>();
+                for(final VaultDto vaultDto : accessible) {
+                    vaults.add(toPlaceholder(directory, vaultDto));
+                }
+                listener.chunk(directory, vaults);
+            }
+            session.saveSnapshot(accessible);
+        }
+        catch(ApiException | BackgroundException e) {
+            log.warn("Failure {} revalidating vaults from snapshot", e.getMessage());
+        }
+    }
+
+    /**
+     * Register placeholders for vaults not yet known without connecting to storage
+     */
+    private AttributedList<Path> listPlaceholders(final Path directory, final List<VaultDto> accessible, final ListProgressListener listener) throws BackgroundException {
+        final VaultRegistry registry = session.getRegistry();
+        final AttributedList<Path> vaults = new AttributedList<>();
+        for(final VaultDto vaultDto : accessible) {
+            final Path placeholder = toPlaceholder(directory, vaultDto);
+            if(registry.contains(placeholder)) {
+                log.debug("Skip registering vault {} already known", vaultDto.getId());
+            }
+            else {
+                log.debug("Register placeholder for vault {}", vaultDto.getId());
+                registry.add(new HubLazyUVFVault(session, provider, placeholder));
+            }
+            vaults.add(placeholder);
+        }
+        listener.chunk(directory, vaults);
+        return vaults;
+    }
+
+    /**
+     * Load vaults with bounded concurrency. Each vault is passed to the listener as soon as it is loaded with the
+     * order of the listing retained. On failure loading a vault, remaining loads are cancelled and vaults loaded
+     * afterwards are closed without being registered.
+     */
+    private AttributedList<Path> listConcurrently(final Path directory, final List<VaultDto> accessible, final ListProgressListener listener) throws BackgroundException {
+        log.debug("Load {} vaults with concurrency {}", accessible.size(), concurrency);
+        final VaultRegistry registry = session.getRegistry();
+        // Slots in order of listing
+        final Path[] loaded = new Path[accessible.size()];
+        // Set with lock on slots when listing failed
+        final AtomicBoolean failed = new AtomicBoolean();
+        final ThreadPool pool = ThreadPoolFactory.get("vaults", concurrency);
+        try {
+            final List<Future<Path>> futures = new ArrayList<>(accessible.size());
+            for(int i = 0; i < accessible.size(); i++) {
+                final int index = i;
+                final VaultDto vaultDto = accessible.get(i);
+                futures.add(pool.execute(() -> {
+                    final Vault vault = this.load(directory, vaultDto);
+                    synchronized(loaded) {
+                        if(failed.get()) {
+                            log.debug("Close vault {} loaded after listing failed", vaultDto.getId());
+                            vault.close();
+                            return null;
+                        }
+                        this.register(registry, directory, vaultDto, vault);
+                        loaded[index] = vault.getHome();
+                        listener.chunk(directory, toList(loaded));
+                    }
+                    return vault.getHome();
+                }));
+            }
+            for(int i = 0; i < futures.size(); i++) {
+                try {
+                    await(futures.get(i));
+                }
+                catch(VaultUnlockCancelException e) {
+                    log.warn("Skip vault {} with failure {} loading", accessible.get(i).getId(), e.getMessage());
+                }
+                catch(BackgroundException e) {
+                    synchronized(loaded) {
+                        failed.set(true);
+                    }
+                    log.warn("Cancel loading remaining vaults after failure {} loading vault {}", e.getMessage(), accessible.get(i).getId());
+                    for(Future<Path> future : futures) {
+                        future.cancel(true);
+                    }
+                    throw e;
+                }
+            }
+            synchronized(loaded) {
+                return toList(loaded);
+            }
+        }
+        finally {
+            pool.shutdown(false);
+        }
+    }
+
+    /**
+     * Register loaded vault wrapped in placeholder to reopen after eviction when katta.vault.idle.ttl is set
+     */
+    private void register(final VaultRegistry registry, final Path directory, final VaultDto vaultDto, final Vault vault) {
+        if(evictable) {
+            registry.add(new HubLazyUVFVault(session, provider, toPlaceholder(directory, vaultDto), vault));
+        }
+        else {
+            registry.add(vault);
+        }
+    }
+
+    private Vault load(final Path directory, final VaultDto vaultDto) throws BackgroundException {
+        log.debug("Load vault {}", vaultDto.getId());
+        final Vault vault = provider.load(session,
+                new Path(directory, vaultDto.getId().toString(), EnumSet.of(Path.Type.directory, Path.Type.volume)),
+                new VaultVersion(VaultVersion.Type.UVF), new VaultCredentials());
+        log.info("Loaded vault {}", vault.getHome());
+        return vault;
+    }
+
+    private static Path toPlaceholder(final Path directory, final VaultDto vaultDto) {
+        return new Path(directory, vaultDto.getId().toString(), EnumSet.of(Path.Type.directory, Path.Type.volume, Path.Type.vault),
+                new DefaultPathAttributes().setDisplayname(vaultDto.getName()));
+    }
+
+    private static AttributedList<Path> toList(final Path[] loaded) {
+        final AttributedList<Path> vaults = new AttributedList<>();
+        for(final Path vault : loaded) {
+            if(vault != null) {
+                vaults.add(vault);
+            }
+        }
+        return vaults;
+    }
+
+    private static <T> T await(final Future<T> future) throws BackgroundException {
+        try {
+            return future.get();
+        }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new DefaultExceptionMappingService().map(e.getCause());
+        }
+    }
+
     @Override
     public void preflight(final Path directory) throws BackgroundException {
         if(directory.isRoot()) {
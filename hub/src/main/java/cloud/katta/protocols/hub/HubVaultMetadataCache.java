@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cryptomator.cryptolib.common.MessageDigestSupplier;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import cloud.katta.crypto.JWEPayload;
+import cloud.katta.crypto.uvf.UVFMetadataPayload;
+import cloud.katta.workflows.exceptions.SecurityFailure;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.BaseEncoding;
+import com.nimbusds.jose.JWEObjectJSON;
+
+/**
+ * Session scoped cache of decrypted vault metadata keyed by vault ID and digest of the encrypted vault.uvf. Unchanged
+ * vault metadata is only decrypted once per Hub connection. Payloads are kept serialized and every caller gets its own
+ * copy to modify.
+ */
+public class HubVaultMetadataCache {
+    private static final Logger log = LogManager.getLogger(HubVaultMetadataCache.class);
+
+    /**
+     * Maximum number of decrypted vault metadata
+     */
+    private static final int MAXIMUM_SIZE = 1000;
+
+    /**
+     * Serialized payload by key
+     */
+    private final Cache<String, String> payloads = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .build();
+
+    /**
+     * @param vaultId  Vault ID
+     * @param jwe      Encrypted vault metadata
+     * @param provider Provider to decrypt vault metadata
+     * @return Cached payload or decrypted from provider if encrypted vault metadata changed
+     * @throws SecurityFailure Failure decrypting vault metadata
+     */
+    public UVFMetadataPayload getPayload(final UUID vaultId, final JWEObjectJSON jwe, final HubVaultMetadataUVFProvider provider) throws SecurityFailure {
+        final String key = String.format("%s-%s", vaultId, digest(jwe));
+        try {
+            final String cached = payloads.getIfPresent(key);
+            if(cached != null) {
+                log.debug("Return cached metadata for vault {}", vaultId);
+                return JWEPayload.fromJSON(cached, UVFMetadataPayload.class);
+            }
+            log.debug("Decrypt metadata for vault {}", vaultId);
+            final UVFMetadataPayload payload = provider.getPayload();
+            payloads.put(key, payload.toJSON());
+            return payload;
+        }
+        catch(JsonProcessingException e) {
+            throw new SecurityFailure(e);
+        }
+    }
+
+    /**
+     * Remove decrypted metadata of vault
+     *
+     * @param vaultId Vault ID
+     */
+    public void invalidate(final UUID vaultId) {
+        log.debug("Invalidate metadata for vault {}", vaultId);
+        final String prefix = String.format("%s-", vaultId);
+        payloads.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    /**
+     * Remove all decrypted vault metadata
+     */
+    public void invalidateAll() {
+        log.debug("Invalidate all vault metadata");
+        payloads.invalidateAll();
+        payloads.cleanUp();
+    }
+
+    private static String digest(final JWEObjectJSON jwe) {
+        final Supplier<MessageDigest> instance = MessageDigestSupplier.SHA256.instance();
+        return BaseEncoding.base16().encode(instance.get().digest(jwe.serializeGeneral().getBytes(StandardCharsets.UTF_8)));
+    }
+}
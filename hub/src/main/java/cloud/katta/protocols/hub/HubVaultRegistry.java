@@ -4,19 +4,213 @@
 
 package cloud.katta.protocols.hub;
 
+import ch.cyberduck.core.DirectoryDelimiterPathContainerService;
 import ch.cyberduck.core.PasswordCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.Session;
+import ch.cyberduck.core.features.Vault;
 import ch.cyberduck.core.vault.DefaultVaultRegistry;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry with vaults indexed by bucket and vault ID. A vault home is always a bucket named with the vault ID as
+ * suffix or a placeholder named with the vault ID. Lookups resolve the container of a file and do not scan all
+ * registered vaults. Loaded vaults registered as {@link HubLazyUVFVault} are evicted when idle if scheduled.
+ */
 public class HubVaultRegistry extends DefaultVaultRegistry {
+    private static final Logger log = LogManager.getLogger(HubVaultRegistry.class);
+
+    /**
+     * Length of vault ID in string representation
+     */
+    private static final int VAULT_ID_LENGTH = 36;
+
+    /**
+     * Minimum period in milliseconds to check for idle vaults
+     */
+    private static final long MINIMUM_PERIOD = 1000L;
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "vault-eviction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final PathContainerService containerService = new DirectoryDelimiterPathContainerService();
+
+    /**
+     * Vaults by name of home
+     */
+    private final Map<String, Vault> containers = new ConcurrentHashMap<>();
+    /**
+     * Vaults by vault ID
+     */
+    private final Map<String, Vault> identifiers = new ConcurrentHashMap<>();
+
+    private ScheduledFuture<?> eviction;
 
     public HubVaultRegistry(final PasswordCallback prompt) {
         super(prompt);
     }
 
+    @Override
+    public boolean add(final Vault vault) {
+        final String name = vault.getHome().getName();
+        containers.put(name, vault);
+        final String id = toVaultId(name);
+        if(id != null) {
+            identifiers.put(id, vault);
+        }
+        return super.add(vault);
+    }
+
+    @Override
+    public boolean contains(final Path file) {
+        return this.lookup(file) != null;
+    }
+
+    @Override
+    public Vault find(final Session session, final Path file, final boolean unlock) {
+        final Vault vault = this.lookup(file);
+        if(null == vault) {
+            log.debug("No vault registered for {}", file);
+            return Vault.DISABLED;
+        }
+        return vault;
+    }
+
+    @Override
+    public boolean close(final Path directory) {
+        final Vault vault = this.lookup(directory);
+        if(null == vault) {
+            this.unindex(directory.getName());
+            return super.close(directory);
+        }
+        this.unindex(vault);
+        // Directory may be bucket of vault registered with placeholder
+        return super.close(vault.getHome());
+    }
+
+    @Override
+    public void clear() {
+        this.cancel();
+        containers.clear();
+        identifiers.clear();
+        super.clear();
+    }
+
     @Override
     public <T> T getFeature(final Session<?> session, final Class<T> type, final T proxy) {
         // Always forward to load feature from vault
         return this._getFeature(session, type, proxy);
     }
+
+    /**
+     * Periodically evict vaults idle for longer than the given time
+     *
+     * @param ttl Idle time in milliseconds
+     */
+    public synchronized void schedule(final long ttl) {
+        this.cancel();
+        final long period = Math.max(MINIMUM_PERIOD, ttl / 2);
+        log.debug("Check for vaults idle for {}ms every {}ms", ttl, period);
+        eviction = scheduler.scheduleWithFixedDelay(() -> this.evict(ttl), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop evicting idle vaults
+     */
+    public synchronized void cancel() {
+        if(eviction != null) {
+            eviction.cancel(false);
+            eviction = null;
+        }
+    }
+
+    /**
+     * Close storage connection and destroy cryptors of loaded vaults idle for longer than the given time
+     *
+     * @param ttl Idle time in milliseconds
+     * @return Number of vaults evicted
+     */
+    public int evict(final long ttl) {
+        int evicted = 0;
+        for(Vault vault : containers.values()) {
+            if(vault instanceof HubLazyUVFVault) {
+                if(((HubLazyUVFVault) vault).evict(ttl)) {
+                    evicted++;
+                }
+            }
+        }
+        if(evicted > 0) {
+            log.info("Evicted {} vaults idle for {}ms", evicted, ttl);
+        }
+        return evicted;
+    }
+
+    /**
+     * @param file File in vault
+     * @return Vault containing file or null
+     */
+    private Vault lookup(final Path file) {
+        final Path container = containerService.getContainer(file);
+        if(container.isRoot()) {
+            return null;
+        }
+        final Vault vault = containers.get(container.getName());
+        if(vault != null && vault.contains(file)) {
+            return vault;
+        }
+        // Bucket of vault registered with placeholder
+        final String id = toVaultId(container.getName());
+        if(null == id) {
+            return null;
+        }
+        final Vault placeholder = identifiers.get(id);
+        if(placeholder != null && placeholder.contains(file)) {
+            return placeholder;
+        }
+        return null;
+    }
+
+    /**
+     * Remove vault indexed by name of home and vault ID
+     */
+    private void unindex(final Vault vault) {
+        final String name = vault.getHome().getName();
+        containers.remove(name, vault);
+        final String id = toVaultId(name);
+        if(id != null) {
+            identifiers.remove(id, vault);
+        }
+    }
+
+    private void unindex(final String name) {
+        final Vault vault = containers.remove(name);
+        final String id = toVaultId(name);
+        if(vault != null && id != null) {
+            identifiers.remove(id, vault);
+        }
+    }
+
+    /**
+     * @param name Bucket or placeholder name
+     * @return Vault ID suffix or null
+     */
+    private static String toVaultId(final String name) {
+        if(name.length() < VAULT_ID_LENGTH) {
+            return null;
+        }
+        return name.substring(name.length() - VAULT_ID_LENGTH);
+    }
 }
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Timing of the steps to unlock a vault. Steps are children of a root span covering the whole unlock and may have
+ * nested spans. Spans can be exported as JSON records with the fields of OpenTelemetry spans. A span closed without
+ * being marked as succeeded is recorded as failed.
+ */
+public class HubVaultUnlockTrace {
+    private static final Logger log = LogManager.getLogger(HubVaultUnlockTrace.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final UUID vaultId;
+    private final String traceId;
+    private final Span root;
+
+    /**
+     * Wall clock and monotonic time at start
+     */
+    private final long epoch;
+    private final long nanos;
+
+    private final List<Span> spans = Collections.synchronizedList(new ArrayList<>());
+
+    public HubVaultUnlockTrace(final UUID vaultId) {
+        this.vaultId = vaultId;
+        this.traceId = id(16);
+        this.epoch = System.currentTimeMillis() * 1_000_000L;
+        this.nanos = System.nanoTime();
+        this.root = new Span("unlock", null);
+    }
+
+    public UUID getVaultId() {
+        return vaultId;
+    }
+
+    /**
+     * Start step. Close returned span when step completes.
+     *
+     * @param name Step name
+     */
+    public Span span(final String name) {
+        return this.span(name, root);
+    }
+
+    /**
+     * Start span nested in parent. Close returned span when completed.
+     *
+     * @param name   Span name
+     * @param parent Parent span or null for a step of the unlock
+     */
+    public Span span(final String name, final Span parent) {
+        return new Span(name, null == parent ? root : parent);
+    }
+
+    /**
+     * @return Completed spans excluding root span
+     */
+    public List<Span> getSpans() {
+        synchronized(spans) {
+            return new ArrayList<>(spans);
+        }
+    }
+
+    /**
+     * @return Root span covering the whole unlock
+     */
+    public Span getRoot() {
+        return root;
+    }
+
+    /**
+     * End root span
+     *
+     * @param failure Failure or null if vault was unlocked
+     */
+    public HubVaultUnlockTrace finish(final Throwable failure) {
+        if(failure != null) {
+            root.error = failure.getMessage();
+            for(Span span : this.getSpans()) {
+                if(span.failed && null == span.error) {
+                    span.error = failure.getMessage();
+                }
+            }
+        }
+        else {
+            root.success();
+        }
+        root.close();
+        return this;
+    }
+
+    /**
+     * @return Spans with OpenTelemetry field names and the root span last
+     */
+    public List<Map<String, Object>> toRecords() {
+        final List<Map<String, Object>> records = new ArrayList<>();
+        for(Span span : this.getSpans()) {
+            records.add(span.toRecord());
+        }
+        records.add(root.toRecord());
+        return records;
+    }
+
+    public String toJSON() {
+        try {
+            return mapper.writeValueAsString(this.toRecords());
+        }
+        catch(JsonProcessingException e) {
+            log.warn("Failure {} serializing trace for vault {}", e.getMessage(), vaultId);
+            return null;
+        }
+    }
+
+    private static String id(final int bytes) {
+        final StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < bytes; i++) {
+            sb.append(String.format("%02x", ThreadLocalRandom.current().nextInt(256)));
+        }
+        return sb.toString();
+    }
+
+    public final class Span implements AutoCloseable {
+        private final String name;
+        private final String spanId;
+        private final Span parent;
+        private final long start;
+        private volatile long end;
+        private volatile boolean succeeded;
+        private volatile boolean failed;
+        private volatile String error;
+
+        /**
+         * @param parent Parent span or null for root span
+         */
+        private Span(final String name, final Span parent) {
+            this.name = name;
+            this.spanId = id(8);
+            this.parent = parent;
+            this.start = System.nanoTime();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return Duration in nanoseconds or 0 if not yet ended
+         */
+        public long getDuration() {
+            return 0L == end ? 0L : end - start;
+        }
+
+        /**
+         * @return True for a step of the unlock and false for a span nested in a step
+         */
+        public boolean isStep() {
+            return parent == root;
+        }
+
+        /**
+         * Mark span as completed without failure before closing
+         */
+        public Span success() {
+            this.succeeded = true;
+            return this;
+        }
+
+        /**
+         * Mark span as failed
+         */
+        public Span error(final Throwable failure) {
+            this.error = failure.getMessage();
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if(0L != end) {
+                return;
+            }
+            failed = !succeeded || error != null;
+            end = System.nanoTime();
+            // Ignore steps such as credentials refresh ending after unlock
+            if(this != root && 0L == root.end) {
+                spans.add(this);
+            }
+        }
+
+        private Map<String, Object> toRecord() {
+            final Map<String, Object> record = new LinkedHashMap<>();
+            record.put("traceId", traceId);
+            record.put("spanId", spanId);
+            if(parent != null) {
+                record.put("parentSpanId", parent.spanId);
+            }
+            record.put("name", name);
+            record.put("startTimeUnixNano", epoch + (start - nanos));
+            record.put("endTimeUnixNano", epoch + ((0L == end ? System.nanoTime() : end) - nanos));
+            record.put("attributes", Collections.singletonMap("katta.vault.id", vaultId.toString()));
+            final Map<String, Object> status = new LinkedHashMap<>();
+            status.put("code", failed ? "STATUS_CODE_ERROR" : "STATUS_CODE_OK");
+            if(error != null) {
+                status.put("message", error);
+            }
+            record.put("status", status);
+            return record;
+        }
+    }
+}
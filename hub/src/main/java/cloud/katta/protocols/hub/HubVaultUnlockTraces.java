@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Completed vault unlock traces of a Hub connection. Each trace is logged as JSON on completion with debug level. A
+ * summary of the time spent per step is computed from the traces completed since the last summary. Spans nested in a
+ * step are not counted separately as their time is included in the step.
+ */
+public class HubVaultUnlockTraces {
+    private static final Logger log = LogManager.getLogger(HubVaultUnlockTraces.class);
+
+    /**
+     * Maximum number of completed traces retained for summary
+     */
+    private static final int MAXIMUM_SIZE = 1000;
+
+    private final ConcurrentLinkedDeque<HubVaultUnlockTrace> completed = new ConcurrentLinkedDeque<>();
+
+    public HubVaultUnlockTrace start(final UUID vaultId) {
+        return new HubVaultUnlockTrace(vaultId);
+    }
+
+    /**
+     * @param trace   Trace to end
+     * @param failure Failure or null if vault was unlocked
+     */
+    public void complete(final HubVaultUnlockTrace trace, final Throwable failure) {
+        trace.finish(failure);
+        if(log.isDebugEnabled()) {
+            log.debug(trace.toJSON());
+        }
+        completed.add(trace);
+        while(completed.size() > MAXIMUM_SIZE) {
+            completed.pollFirst();
+        }
+    }
+
+    /**
+     * Remove traces completed since last summary and aggregate time spent per step
+     *
+     * @return Summary per step ordered by total time descending or null if no vault was unlocked
+     */
+    public Summary summary() {
+        final List<HubVaultUnlockTrace> traces = new ArrayList<>();
+        HubVaultUnlockTrace trace;
+        while((trace = completed.pollFirst()) != null) {
+            traces.add(trace);
+        }
+        if(traces.isEmpty()) {
+            return null;
+        }
+        return new Summary(traces);
+    }
+
+    public static final class Summary {
+        private final int vaults;
+        private final long wall;
+        private final Map<String, Step> steps = new LinkedHashMap<>();
+
+        private Summary(final List<HubVaultUnlockTrace> traces) {
+            this.vaults = traces.size();
+            long wall = 0L;
+            final Map<String, Step> steps = new LinkedHashMap<>();
+            for(HubVaultUnlockTrace trace : traces) {
+                wall += trace.getRoot().getDuration();
+                for(HubVaultUnlockTrace.Span span : trace.getSpans()) {
+                    if(!span.isStep()) {
+                        continue;
+                    }
+                    steps.computeIfAbsent(span.getName(), Step::new).add(span.getDuration());
+                }
+            }
+            this.wall = wall;
+            steps.values().stream().sorted((a, b) -> Long.compare(b.total, a.total)).forEach(step -> this.steps.put(step.name, step));
+        }
+
+        /**
+         * @return Steps ordered by total time descending
+         */
+        public Map<String, Step> getSteps() {
+            return steps;
+        }
+
+        public int getVaults() {
+            return vaults;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder(String.format("Unlocked %d vaults in %dms total:", vaults, TimeUnit.NANOSECONDS.toMillis(wall)));
+            for(Step step : steps.values()) {
+                sb.append(String.format(" %s %dms (%d%%, max %dms)", step.name, TimeUnit.NANOSECONDS.toMillis(step.total),
+                        0L == wall ? 0L : step.total * 100 / wall, TimeUnit.NANOSECONDS.toMillis(step.max)));
+            }
+            return sb.toString();
+        }
+    }
+
+    public static final class Step {
+        private final String name;
+        private int count;
+        private long total;
+        private long max;
+
+        private Step(final String name) {
+            this.name = name;
+        }
+
+        private void add(final long duration) {
+            count++;
+            total += duration;
+            max = Math.max(max, duration);
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * @return Total duration in nanoseconds
+         */
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * @return Maximum duration in nanoseconds
+         */
+        public long getMax() {
+            return max;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import ch.cyberduck.core.TemporaryAccessTokens;
 import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.oauth.OAuth2RequestInterceptor;
+import ch.cyberduck.core.preferences.HostPreferencesFactory;
 import ch.cyberduck.core.s3.S3Session;
 import ch.cyberduck.core.ssl.X509KeyManager;
 import ch.cyberduck.core.ssl.X509TrustManager;
@@ -46,6 +47,11 @@ public class STSChainedAssumeRoleRequestInterceptor extends STSAssumeRoleWithWeb
     private final Host bookmark;
     private final UUID vaultId;
 
+    /**
+     * Temporary credentials for vault refreshed ahead of expiry
+     */
+    private final STSCredentialsCache cache;
+
     public STSChainedAssumeRoleRequestInterceptor(final HubSession hub, final OAuth2RequestInterceptor oauth,
                                                   final UUID vaultId,
                                                   final String stsSessionTagRoleArn,
@@ -57,6 +63,15 @@ public class STSChainedAssumeRoleRequestInterceptor extends STSAssumeRoleWithWeb
         this.stsSessionTag = stsSessionTagKey;
         this.bookmark = host;
         this.vaultId = vaultId;
+        this.cache = new STSCredentialsCache(vaultId, -1L == HostPreferencesFactory.get(host).getLong("katta.sts.refresh.margin") ? 300000L :
+                HostPreferencesFactory.get(host).getLong("katta.sts.refresh.margin"));
+    }
+
+    /**
+     * @return Temporary credentials cached for vault
+     */
+    public STSCredentialsCache getCache() {
+        return cache;
     }
 
     @Override
@@ -65,7 +80,8 @@ public class STSChainedAssumeRoleRequestInterceptor extends STSAssumeRoleWithWeb
     }
 
     /**
-     * Assume role with previously obtained temporary access token
+     * Assume role with previously obtained temporary access token. Credentials are cached for the vault and refreshed
+     * in the background before expiry.
      *
      * @param oauth OIDC tokens
      * @return Temporary scoped access tokens
@@ -74,6 +90,13 @@ public class STSChainedAssumeRoleRequestInterceptor extends STSAssumeRoleWithWeb
      */
     @Override
     public TemporaryAccessTokens assumeRoleWithWebIdentity(final OAuthTokens oauth, final String roleArn) throws BackgroundException {
+        return cache.get(() -> this.assumeRoleChained(oauth, roleArn));
+    }
+
+    /**
+     * Token exchange followed by assume role with web identity and optionally assume role with session tag for vault
+     */
+    private TemporaryAccessTokens assumeRoleChained(final OAuthTokens oauth, final String roleArn) throws BackgroundException {
         final TemporaryAccessTokens tokens = super.assumeRoleWithWebIdentity(this.tokenExchange(oauth), roleArn);
         if(StringUtils.isNotBlank(stsSessionTagRoleArn) && StringUtils.isNotBlank(stsSessionTag)) {
             log.debug("Assume role with temporary credentials for vault {}", vaultId);
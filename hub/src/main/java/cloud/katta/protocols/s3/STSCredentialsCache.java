@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.s3;
+
+import ch.cyberduck.core.DefaultExceptionMappingService;
+import ch.cyberduck.core.TemporaryAccessTokens;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Temporary credentials for a single vault refreshed in the background ahead of expiry. Refresh is only repeated
+ * when credentials have been handed out since the previous refresh to stop for idle vaults. Concurrent requests for
+ * new credentials of the same vault are coalesced into a single in-flight request. Credentials obtained while being
+ * invalidated are handed out to waiting callers but not cached.
+ */
+public class STSCredentialsCache {
+    private static final Logger log = LogManager.getLogger(STSCredentialsCache.class);
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "sts-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Minimum remaining validity for cached credentials to be returned
+     */
+    private static final long MINIMUM_VALIDITY = 10000L;
+
+    private final UUID vaultId;
+
+    /**
+     * Refresh credentials this many milliseconds before expiry
+     */
+    private final long margin;
+
+    private volatile TemporaryAccessTokens tokens;
+
+    /**
+     * Credentials handed out since last refresh
+     */
+    private volatile boolean used;
+
+    private ScheduledFuture<?> refresh;
+
+    /**
+     * Incremented when invalidated
+     */
+    private long generation;
+
+    /**
+     * In-flight request for new credentials shared with concurrent callers
+     */
+    private final AtomicReference<CompletableFuture<TemporaryAccessTokens>> inflight = new AtomicReference<>();
+
+    public interface Loader {
+        TemporaryAccessTokens load() throws BackgroundException;
+    }
+
+    /**
+     * @param vaultId Vault ID
+     * @param margin  Refresh credentials this many milliseconds before expiry
+     */
+    public STSCredentialsCache(final UUID vaultId, final long margin) {
+        this.vaultId = vaultId;
+        this.margin = margin;
+    }
+
+    /**
+     * @param loader Obtain new temporary credentials
+     * @return Cached credentials if still valid or new credentials from loader
+     */
+    public TemporaryAccessTokens get(final Loader loader) throws BackgroundException {
+        final TemporaryAccessTokens cached = tokens;
+        if(isValid(cached)) {
+            log.debug("Return cached credentials for vault {}", vaultId);
+            used = true;
+            return cached;
+        }
+        return this.load(loader, true);
+    }
+
+    /**
+     * Obtain new credentials or wait for the result of a request already in-flight for the same vault
+     *
+     * @param handout Credentials are returned to caller
+     */
+    private TemporaryAccessTokens load(final Loader loader, final boolean handout) throws BackgroundException {
+        final CompletableFuture<TemporaryAccessTokens> future = new CompletableFuture<>();
+        final CompletableFuture<TemporaryAccessTokens> existing = inflight.updateAndGet(current -> null == current ? future : current);
+        if(existing != future) {
+            log.debug("Await in-flight request for credentials of vault {}", vaultId);
+            try {
+                final TemporaryAccessTokens shared = existing.get();
+                if(handout) {
+                    used = true;
+                }
+                return shared;
+            }
+            catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConnectionCanceledException(e);
+            }
+            catch(ExecutionException e) {
+                if(e.getCause() instanceof BackgroundException) {
+                    throw (BackgroundException) e.getCause();
+                }
+                throw new DefaultExceptionMappingService().map(e.getCause());
+            }
+        }
+        try {
+            final TemporaryAccessTokens cached = tokens;
+            if(handout && isValid(cached)) {
+                // Completed by other thread in the meantime
+                used = true;
+                future.complete(cached);
+                return cached;
+            }
+            log.debug("Obtain new credentials for vault {}", vaultId);
+            final long current = this.generation();
+            final TemporaryAccessTokens fresh = loader.load();
+            this.update(fresh, loader, handout, current);
+            future.complete(fresh);
+            return fresh;
+        }
+        catch(BackgroundException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        }
+        finally {
+            inflight.compareAndSet(future, null);
+        }
+    }
+
+    /**
+     * Discard cached credentials and cancel scheduled refresh. Credentials obtained by requests already in-flight are not
+     * cached.
+     */
+    public synchronized void invalidate() {
+        log.debug("Invalidate credentials for vault {}", vaultId);
+        generation++;
+        tokens = null;
+        if(refresh != null) {
+            refresh.cancel(false);
+            refresh = null;
+        }
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * @param generation Generation when request for credentials was started
+     */
+    private synchronized void update(final TemporaryAccessTokens fresh, final Loader loader, final boolean handout, final long generation) {
+        if(generation != this.generation) {
+            log.debug("Skip caching credentials for vault {} invalidated in the meantime", vaultId);
+            return;
+        }
+        tokens = fresh;
+        used = handout;
+        if(refresh != null) {
+            refresh.cancel(false);
+            refresh = null;
+        }
+        final Long expiry = fresh.getExpiryInMilliseconds();
+        if(null == expiry) {
+            log.debug("No expiry set for credentials of vault {}", vaultId);
+            return;
+        }
+        final long lifetime = expiry - System.currentTimeMillis();
+        if(lifetime <= 0) {
+            return;
+        }
+        // Refresh before expiry but not earlier than after half the lifetime
+        final long delay = Math.max(lifetime - margin, lifetime / 2);
+        log.debug("Schedule refresh of credentials for vault {} in {}ms", vaultId, delay);
+        refresh = scheduler.schedule(() -> this.refresh(loader), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh(final Loader loader) {
+        if(!used) {
+            log.debug("Skip refresh of credentials for idle vault {}", vaultId);
+            return;
+        }
+        try {
+            log.info("Refresh credentials ahead of expiry for vault {}", vaultId);
+            this.load(loader, false);
+        }
+        catch(BackgroundException e) {
+            // Retry inline on next request after expiry
+            log.warn("Failure {} refreshing credentials for vault {}", e.getMessage(), vaultId);
+        }
+    }
+
+    private static boolean isValid(final TemporaryAccessTokens tokens) {
+        if(null == tokens || tokens.isExpired()) {
+            return false;
+        }
+        final Long expiry = tokens.getExpiryInMilliseconds();
+        return null == expiry || expiry - System.currentTimeMillis() > MINIMUM_VALIDITY;
+    }
+}
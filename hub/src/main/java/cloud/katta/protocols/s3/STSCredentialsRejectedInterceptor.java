@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.s3;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.HttpStatus;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Invalidate cached temporary credentials when rejected by storage with an error code denoting expired or invalid
+ * credentials so that new credentials are obtained when the request is retried. Other failures such as
+ * <code>AccessDenied</code> for missing permissions keep the cached credentials.
+ */
+public class STSCredentialsRejectedInterceptor implements HttpResponseInterceptor {
+    private static final Logger log = LogManager.getLogger(STSCredentialsRejectedInterceptor.class);
+
+    /**
+     * Error codes in error document for credentials to obtain again
+     */
+    private static final Set<String> CODES = new HashSet<>(Arrays.asList(
+            "ExpiredToken", "InvalidToken", "InvalidAccessKeyId", "SignatureDoesNotMatch"));
+
+    private static final Pattern CODE = Pattern.compile("<Code>([^<]+)</Code>");
+
+    private final STSCredentialsCache cache;
+
+    public STSCredentialsRejectedInterceptor(final STSCredentialsCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void process(final HttpResponse response, final HttpContext context) throws IOException {
+        switch(response.getStatusLine().getStatusCode()) {
+            case HttpStatus.SC_FORBIDDEN:
+            case HttpStatus.SC_BAD_REQUEST:
+                final HttpEntity entity = response.getEntity();
+                if(null == entity) {
+                    break;
+                }
+                // Error document is read again by caller
+                final BufferedHttpEntity buffered = new BufferedHttpEntity(entity);
+                response.setEntity(buffered);
+                final Matcher matcher = CODE.matcher(EntityUtils.toString(buffered));
+                if(matcher.find() && CODES.contains(matcher.group(1))) {
+                    log.warn("Invalidate credentials rejected with {} and error code {}", response.getStatusLine(), matcher.group(1));
+                    cache.invalidate();
+                }
+                break;
+        }
+    }
+}
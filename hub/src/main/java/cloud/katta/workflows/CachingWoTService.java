@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.workflows;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.security.PublicKey;
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import cloud.katta.client.ApiException;
+import cloud.katta.client.model.TrustedUserDto;
+import cloud.katta.client.model.UserDto;
+import cloud.katta.crypto.UserKeys;
+import cloud.katta.crypto.wot.SignedKeys;
+import cloud.katta.workflows.exceptions.AccessException;
+import cloud.katta.workflows.exceptions.SecurityFailure;
+import com.nimbusds.jose.JOSEException;
+
+/**
+ * Snapshot of verified trust levels reused for all vaults until the validity window has passed. Discarded when
+ * signing a new trust or for different user keys.
+ */
+public class CachingWoTService implements WoTService {
+    private static final Logger log = LogManager.getLogger(CachingWoTService.class);
+
+    private final WoTService proxy;
+
+    /**
+     * Validity of snapshot in milliseconds
+     */
+    private final long ttl;
+
+    private Snapshot snapshot;
+
+    public CachingWoTService(final WoTService proxy, final long ttl) {
+        this.proxy = proxy;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public synchronized Map<String, Integer> getTrustLevelsPerUserId(final UserKeys userKeys) throws ApiException, AccessException, SecurityFailure {
+        final PublicKey signer = userKeys.ecdsaKeyPair().getPublic();
+        if(snapshot != null && snapshot.isValid(signer)) {
+            log.debug("Return trust levels from snapshot");
+            return snapshot.levels;
+        }
+        log.debug("Compute trust levels for snapshot");
+        final Map<String, Integer> levels = Collections.unmodifiableMap(proxy.getTrustLevelsPerUserId(userKeys));
+        snapshot = new Snapshot(signer, levels, System.currentTimeMillis() + ttl);
+        return levels;
+    }
+
+    @Override
+    public void verify(final UserKeys userKeys, final List<String> signatureChain, final SignedKeys allegedSignedKey) throws ApiException, AccessException, SecurityFailure {
+        proxy.verify(userKeys, signatureChain, allegedSignedKey);
+    }
+
+    @Override
+    public TrustedUserDto sign(final UserKeys userKeys, final UserDto user) throws ApiException, ParseException, JOSEException, AccessException, SecurityFailure {
+        final TrustedUserDto trust = proxy.sign(userKeys, user);
+        this.invalidate();
+        return trust;
+    }
+
+    /**
+     * Discard snapshot
+     */
+    public synchronized void invalidate() {
+        snapshot = null;
+    }
+
+    private static final class Snapshot {
+        private final PublicKey signer;
+        private final Map<String, Integer> levels;
+        private final long expiry;
+
+        private Snapshot(final PublicKey signer, final Map<String, Integer> levels, final long expiry) {
+            this.signer = signer;
+            this.levels = levels;
+            this.expiry = expiry;
+        }
+
+        private boolean isValid(final PublicKey key) {
+            return System.currentTimeMillis() < expiry && signer.equals(key);
+        }
+    }
+}
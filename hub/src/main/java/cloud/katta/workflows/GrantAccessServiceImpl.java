@@ -7,10 +7,17 @@ package cloud.katta.workflows;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 import cloud.katta.client.ApiException;
 import cloud.katta.client.api.UsersResourceApi;
@@ -21,9 +28,11 @@ import cloud.katta.crypto.uvf.HubVaultKeys;
 import cloud.katta.crypto.uvf.UVFAccessTokenPayload;
 import cloud.katta.crypto.uvf.UVFMetadataPayload;
 import cloud.katta.protocols.hub.HubSession;
+import cloud.katta.protocols.hub.HubVaultMetadataCache;
 import cloud.katta.protocols.hub.HubVaultMetadataUVFProvider;
 import cloud.katta.workflows.exceptions.AccessException;
 import cloud.katta.workflows.exceptions.SecurityFailure;
+import com.nimbusds.jose.JWEObjectJSON;
 
 import static cloud.katta.crypto.KeyHelper.decodePublicKey;
 import static java.util.Optional.ofNullable;
@@ -31,12 +40,36 @@ import static java.util.Optional.ofNullable;
 public class GrantAccessServiceImpl implements GrantAccessService {
     private static final Logger log = LogManager.getLogger(GrantAccessServiceImpl.class.getName());
 
+    public static final int DEFAULT_CHUNK_SIZE = 100;
+
+    /**
+     * Number of attempts to upload a chunk of access tokens
+     */
+    private static final int MAXIMUM_ATTEMPTS = 3;
+
     private final VaultResourceApi vaultResourceApi;
     private final VaultService vaultService;
     private final WoTService woTService;
 
+    /**
+     * Pool to encrypt access tokens for users in parallel
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Maximum number of access tokens uploaded in a single request
+     */
+    private final int chunk;
+
+    /**
+     * Decrypted vault metadata
+     */
+    private final HubVaultMetadataCache metadata;
+
     public GrantAccessServiceImpl(final HubSession hubSession) {
-        this(new VaultResourceApi(hubSession.getClient()), new UsersResourceApi(hubSession.getClient()));
+        this(new VaultResourceApi(hubSession.getClient()), new VaultServiceImpl(hubSession),
+                new WoTServiceImpl(new UsersResourceApi(hubSession.getClient())), ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE,
+                hubSession.getVaultMetadata());
     }
 
     public GrantAccessServiceImpl(final VaultResourceApi vaultResourceApi, final UsersResourceApi usersResourceApi) {
@@ -44,17 +77,31 @@ public class GrantAccessServiceImpl implements GrantAccessService {
     }
 
     public GrantAccessServiceImpl(final VaultResourceApi vaultResourceApi, final VaultService vaultService, final WoTService woTService) {
+        this(vaultResourceApi, vaultService, woTService, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public GrantAccessServiceImpl(final VaultResourceApi vaultResourceApi, final VaultService vaultService, final WoTService woTService,
+                                  final ForkJoinPool pool, final int chunk) {
+        this(vaultResourceApi, vaultService, woTService, pool, chunk, new HubVaultMetadataCache());
+    }
+
+    public GrantAccessServiceImpl(final VaultResourceApi vaultResourceApi, final VaultService vaultService, final WoTService woTService,
+                                  final ForkJoinPool pool, final int chunk, final HubVaultMetadataCache metadata) {
         this.vaultResourceApi = vaultResourceApi;
         this.vaultService = vaultService;
         this.woTService = woTService;
+        this.pool = pool;
+        this.chunk = chunk;
+        this.metadata = metadata;
     }
 
     @Override
     public void grantAccessToUsersRequiringAccessGrant(final UUID vaultId, final UserKeys userKeys) throws ApiException, AccessException, SecurityFailure {
         final UVFAccessTokenPayload accessToken = vaultService.getVaultAccessToken(vaultId, userKeys);
-        try (final HubVaultMetadataUVFProvider vaultMetadataProvider = new HubVaultMetadataUVFProvider(vaultService.getVaultMetadata(vaultId),
+        final JWEObjectJSON jwe = vaultService.getVaultMetadata(vaultId);
+        try (final HubVaultMetadataUVFProvider vaultMetadataProvider = new HubVaultMetadataUVFProvider(jwe,
                 new HubVaultKeys(accessToken.key()))) {
-            final UVFMetadataPayload vaultMetadata = vaultMetadataProvider.getPayload();
+            final UVFMetadataPayload vaultMetadata = metadata.getPayload(vaultId, jwe, vaultMetadataProvider);
             if(vaultMetadata.automaticAccessGrant() == null || !ofNullable(vaultMetadata.automaticAccessGrant().getEnabled()).orElse(false)) {
                 log.debug("Ignoring vault {} - automatic access grant disabled", vaultId);
                 return;
@@ -62,12 +109,16 @@ public class GrantAccessServiceImpl implements GrantAccessService {
             // 1. Get Ids of trusted and verified users
             // trustThreshold: -1 means "grant to anyone", where 0, 1, 2 would be the number of edges between any vault owner and the grantee.
             final int trustThreshold = ofNullable(vaultMetadata.automaticAccessGrant().getTrustThreshold()).orElse(-1);
-            final Map<String, Integer> verifiedTrustedUsers = woTService.getTrustLevelsPerUserId(userKeys);
-            // 2. For users, who are considered trustworthy (i.e. the signature chain between the current user and the to-be-trusted user is shorter
-            // than a configurable threshold), use the verified ECDH public key to encrypt the vault's member key (and optionally its recovery key):
-            final Map<String, String> accessTokens = new HashMap<>();
             final List<MemberDto> usersRequiringAccessGrant = vaultResourceApi.apiVaultsVaultIdUsersRequiringAccessGrantGet(vaultId);
             log.info("{} users requiring access grant for vault {}", usersRequiringAccessGrant.size(), vaultId);
+            if(usersRequiringAccessGrant.isEmpty()) {
+                return;
+            }
+            // Trust levels are only required with threshold set
+            final Map<String, Integer> verifiedTrustedUsers = trustThreshold >= 0 ? woTService.getTrustLevelsPerUserId(userKeys) : Collections.emptyMap();
+            // 2. For users, who are considered trustworthy (i.e. the signature chain between the current user and the to-be-trusted user is shorter
+            // than a configurable threshold), use the verified ECDH public key to encrypt the vault's member key (and optionally its recovery key):
+            final List<MemberDto> grantees = new ArrayList<>();
             for(final MemberDto user : usersRequiringAccessGrant) {
                 if(user.getEcdhPublicKey() == null) {
                     log.debug("Ignoring user {} for vault {} - no user key yet", user.getId(), vaultId);
@@ -86,15 +137,105 @@ public class GrantAccessServiceImpl implements GrantAccessService {
                     }
                 }
                 // else: -1 means grant to all
-                accessTokens.put(user.getId(), accessToken.encryptForUser(decodePublicKey(user.getEcdhPublicKey())));
+                grantees.add(user);
             }
-            if(accessTokens.isEmpty()) {
+            if(grantees.isEmpty()) {
                 log.info("for vault {} - nothing to upload", vaultId);
                 return;
             }
+            final Map<String, String> accessTokens = this.encrypt(accessToken, grantees);
             // 3. Bulk-upload the collection of these JWEs to the server. (POST /vaults/${vaultId}/access-tokens, {"user1": "jwe1", "user2": "jwe2", ...)
-            vaultResourceApi.apiVaultsVaultIdAccessTokensPost(vaultId, accessTokens);
-            log.info("Uploaded JWE for users {} and vault {}", accessTokens.keySet(), vaultId);
+            this.upload(vaultId, accessTokens);
+        }
+    }
+
+    /**
+     * Encrypt access token for each user in parallel
+     *
+     * @return JWE by user ID
+     */
+    private Map<String, String> encrypt(final UVFAccessTokenPayload accessToken, final List<MemberDto> users) throws AccessException, SecurityFailure {
+        final Map<String, String> accessTokens = new ConcurrentHashMap<>();
+        try {
+            // Parallel stream runs in the pool it is submitted to
+            pool.submit(() -> users.parallelStream().forEach(user -> {
+                try {
+                    accessTokens.put(user.getId(), accessToken.encryptForUser(decodePublicKey(user.getEcdhPublicKey())));
+                }
+                catch(SecurityFailure e) {
+                    throw new CompletionException(e);
+                }
+            })).get();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccessException(e);
         }
+        catch(ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof CompletionException) {
+                cause = cause.getCause();
+            }
+            if(cause instanceof SecurityFailure) {
+                throw (SecurityFailure) cause;
+            }
+            throw new SecurityFailure(cause);
+        }
+        return new HashMap<>(accessTokens);
+    }
+
+    /**
+     * Upload access tokens in chunks. Failed chunks are retried separately and do not prevent upload of other chunks.
+     *
+     * @throws ApiException Last failure uploading a chunk after all chunks have been attempted
+     */
+    private void upload(final UUID vaultId, final Map<String, String> accessTokens) throws ApiException, AccessException {
+        final List<Map.Entry<String, String>> entries = new ArrayList<>(accessTokens.entrySet());
+        ApiException failure = null;
+        for(int offset = 0; offset < entries.size(); offset += chunk) {
+            final Map<String, String> part = new HashMap<>();
+            for(final Map.Entry<String, String> entry : entries.subList(offset, Math.min(offset + chunk, entries.size()))) {
+                part.put(entry.getKey(), entry.getValue());
+            }
+            try {
+                this.upload(vaultId, part, 1);
+                log.info("Uploaded JWE for users {} and vault {}", part.keySet(), vaultId);
+            }
+            catch(ApiException e) {
+                log.warn("Upload of JWE for users {} and vault {} failed with error {}", part.keySet(), vaultId, e.getMessage());
+                failure = e;
+            }
+        }
+        if(failure != null) {
+            throw failure;
+        }
+    }
+
+    private void upload(final UUID vaultId, final Map<String, String> part, final int attempt) throws ApiException, AccessException {
+        try {
+            vaultResourceApi.apiVaultsVaultIdAccessTokensPost(vaultId, part);
+        }
+        catch(ApiException e) {
+            if(attempt < MAXIMUM_ATTEMPTS && isRetryable(e)) {
+                log.warn("Retry upload of JWE for vault {} after failure {}", vaultId, e.getMessage());
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(attempt));
+                }
+                catch(InterruptedException i) {
+                    Thread.currentThread().interrupt();
+                    throw new AccessException(i);
+                }
+                this.upload(vaultId, part, attempt + 1);
+                return;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return True for connection failures, rate limiting and server errors
+     */
+    private static boolean isRetryable(final ApiException e) {
+        return e.getCode() == 0 || e.getCode() == 429 || e.getCode() >= 500;
     }
 }
@@ -4,6 +4,10 @@
 
 package cloud.katta.workflows;
 
+import org.apache.http.HttpStatus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import java.text.ParseException;
 import java.util.UUID;
 
@@ -11,31 +15,63 @@ import cloud.katta.client.ApiException;
 import cloud.katta.client.api.VaultResourceApi;
 import cloud.katta.crypto.UserKeys;
 import cloud.katta.crypto.uvf.UVFAccessTokenPayload;
+import cloud.katta.protocols.hub.HubAccessTokenCache;
 import cloud.katta.protocols.hub.HubSession;
 import cloud.katta.workflows.exceptions.SecurityFailure;
 import com.nimbusds.jose.JWEObjectJSON;
 
 public class VaultServiceImpl implements VaultService {
+    private static final Logger log = LogManager.getLogger(VaultServiceImpl.class);
 
     private final VaultResourceApi vaultResource;
 
+    /**
+     * Decrypted access tokens
+     */
+    private final HubAccessTokenCache tokens;
+
     public VaultServiceImpl(final HubSession hubSession) {
-        this(new VaultResourceApi(hubSession.getClient()));
+        this(new VaultResourceApi(hubSession.getClient()), hubSession.getAccessTokens());
     }
 
     public VaultServiceImpl(final VaultResourceApi vaultResource) {
+        this(vaultResource, new HubAccessTokenCache(0L));
+    }
+
+    public VaultServiceImpl(final VaultResourceApi vaultResource, final HubAccessTokenCache tokens) {
         this.vaultResource = vaultResource;
+        this.tokens = tokens;
     }
 
     @Override
     public UVFAccessTokenPayload getVaultAccessToken(final UUID vaultId, final UserKeys userKeys) throws ApiException, SecurityFailure {
-        // Get the user-specific vault key with private user key
-        return userKeys.decryptAccessToken(vaultResource.apiVaultsVaultIdAccessTokenGet(vaultId, false));
+        final UVFAccessTokenPayload cached = tokens.get(vaultId, userKeys);
+        if(cached != null) {
+            log.debug("Return cached access token for vault {}", vaultId);
+            return cached;
+        }
+        try {
+            // Get the user-specific vault key with private user key
+            final UVFAccessTokenPayload token = userKeys.decryptAccessToken(vaultResource.apiVaultsVaultIdAccessTokenGet(vaultId, false));
+            tokens.put(vaultId, userKeys, token);
+            return token;
+        }
+        catch(ApiException e) {
+            this.invalidate(vaultId, e);
+            throw e;
+        }
     }
 
     @Override
     public JWEObjectJSON getVaultMetadata(final UUID vaultId) throws ApiException, SecurityFailure {
-        final String vaultMetadataFile = vaultResource.apiVaultsVaultIdUvfVaultUvfGet(vaultId);
+        final String vaultMetadataFile;
+        try {
+            vaultMetadataFile = vaultResource.apiVaultsVaultIdUvfVaultUvfGet(vaultId);
+        }
+        catch(ApiException e) {
+            this.invalidate(vaultId, e);
+            throw e;
+        }
         try {
             return JWEObjectJSON.parse(vaultMetadataFile);
         }
@@ -43,4 +79,18 @@ public class VaultServiceImpl implements VaultService {
             throw new SecurityFailure(e);
         }
     }
+
+    /**
+     * Discard cached access token when access to vault is denied (403), the vault is archived (410) or the
+     * user account requires setup (449)
+     */
+    private void invalidate(final UUID vaultId, final ApiException e) {
+        switch(e.getCode()) {
+            case HttpStatus.SC_FORBIDDEN:
+            case HttpStatus.SC_GONE:
+            case 449:
+                log.warn("Invalidate access token for vault {} after failure {}", vaultId, e.getCode());
+                tokens.invalidate(vaultId);
+        }
+    }
 }
@@ -10,6 +10,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import cloud.katta.client.ApiException;
@@ -31,18 +32,27 @@ public class WoTServiceImpl implements WoTService {
     protected final UsersResourceApi usersApi;
     protected final AuthorityResourceApi authorityApi;
 
+    /**
+     * Pool to verify signature chains in parallel
+     */
+    private final ForkJoinPool pool;
+
     public WoTServiceImpl(final HubSession hubSession) {
         this(new UsersResourceApi(hubSession.getClient()), new AuthorityResourceApi(hubSession.getClient()));
     }
 
     public WoTServiceImpl(final UsersResourceApi users) {
-        this.usersApi = users;
-        this.authorityApi = new AuthorityResourceApi(usersApi.getApiClient());
+        this(users, new AuthorityResourceApi(users.getApiClient()));
     }
 
     public WoTServiceImpl(final UsersResourceApi users, final AuthorityResourceApi authorities) {
+        this(users, authorities, ForkJoinPool.commonPool());
+    }
+
+    public WoTServiceImpl(final UsersResourceApi users, final AuthorityResourceApi authorities, final ForkJoinPool pool) {
         this.usersApi = users;
         this.authorityApi = authorities;
+        this.pool = pool;
     }
 
     @Override
@@ -63,7 +73,7 @@ public class WoTServiceImpl implements WoTService {
                 .collect(Collectors.toList())).stream().map(AuthorityDto::getUserDto).collect(Collectors.toList());
 
         // 2. Verify all returned signature chains
-        return WoT.verifyTrusts(trusts, users, signerPublicKey);
+        return WoT.verifyTrusts(trusts, users, signerPublicKey, pool);
     }
 
     @Override
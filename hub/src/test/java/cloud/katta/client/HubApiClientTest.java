@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.client;
+
+import ch.cyberduck.core.Host;
+
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.GenericType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import cloud.katta.protocols.hub.HubProtocol;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HubApiClientTest {
+
+    private static final String OPERATION = "ConfigResourceApi.apiConfigGet";
+
+    @Test
+    void testConditionalRequest() throws Exception {
+        final ScriptedHubApiClient client = new ScriptedHubApiClient();
+        final ApiResponse<String> response = new ApiResponse<>(200, headers("ETag", "\"v1\""), "config");
+        client.replies.add(response);
+        assertEquals("config", this.get(client).getData());
+        assertFalse(client.requests.get(0).containsKey("If-None-Match"));
+        // Not modified with new validator
+        final Map<String, List<String>> notModified = headers("ETag", "\"v2\"");
+        notModified.put("Last-Modified", Collections.singletonList("Wed, 21 Oct 2026 07:28:00 GMT"));
+        client.replies.add(new ApiException(304, "Not Modified", notModified, null));
+        assertSame(response, this.get(client));
+        assertEquals("\"v1\"", client.requests.get(1).get("If-None-Match"));
+        assertFalse(client.requests.get(1).containsKey("If-Modified-Since"));
+        // Validators from 304 response sent with next request
+        client.replies.add(new ApiException(304, "Not Modified", new HashMap<>(), null));
+        assertSame(response, this.get(client));
+        assertEquals("\"v2\"", client.requests.get(2).get("If-None-Match"));
+        assertEquals("Wed, 21 Oct 2026 07:28:00 GMT", client.requests.get(2).get("If-Modified-Since"));
+        assertEquals(3, client.requests.size());
+    }
+
+    @Test
+    void testFresh() throws Exception {
+        final ScriptedHubApiClient client = new ScriptedHubApiClient();
+        final ApiResponse<String> response = new ApiResponse<>(200, headers("Cache-Control", "max-age=60"), "config");
+        client.replies.add(response);
+        assertSame(response, this.get(client));
+        // Served from cache without request
+        assertSame(response, this.get(client));
+        assertEquals(1, client.requests.size());
+    }
+
+    private ApiResponse<String> get(final HubApiClient client) throws ApiException {
+        return client.invokeAPI(OPERATION, "/api/config", "GET", new ArrayList<>(), null, new HashMap<>(), new HashMap<>(), new HashMap<>(),
+                "application/json", null, new String[]{}, new GenericType<String>() {
+                }, false);
+    }
+
+    private static Map<String, List<String>> headers(final String name, final String value) {
+        final Map<String, List<String>> headers = new HashMap<>();
+        headers.put(name, Collections.singletonList(value));
+        return headers;
+    }
+
+    /**
+     * Replies with scripted responses or failures and records request headers
+     */
+    private static final class ScriptedHubApiClient extends HubApiClient {
+        private final List<Map<String, String>> requests = new ArrayList<>();
+        private final Deque<Object> replies = new ArrayDeque<>();
+
+        private ScriptedHubApiClient() {
+            super(new Host(new HubProtocol(), "localhost"), HttpClients.createDefault(), new HubResponseCache());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        <T> ApiResponse<T> invokeUncachedAPI(final String operation, final String path, final String method, final List<Pair> queryParams, final Object body,
+                                             final Map<String, String> headerParams, final Map<String, String> cookieParams, final Map<String, Object> formParams, final String accept,
+                                             final String contentType, final String[] authNames, final GenericType<T> returnType, final boolean isBodyNullable) throws ApiException {
+            requests.add(new HashMap<>(headerParams));
+            final Object reply = replies.removeFirst();
+            if(reply instanceof ApiException) {
+                throw (ApiException) reply;
+            }
+            return (ApiResponse<T>) reply;
+        }
+    }
+}
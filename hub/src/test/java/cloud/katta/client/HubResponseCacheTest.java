@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HubResponseCacheTest {
+
+    @Test
+    void testIsCached() {
+        final HubResponseCache cache = new HubResponseCache();
+        assertTrue(cache.isCached("ConfigResourceApi.apiConfigGet", "GET"));
+        assertFalse(cache.isCached("VaultResourceApi.apiVaultsAccessibleGet", "GET"));
+        assertFalse(cache.isCached("ConfigResourceApi.apiConfigGet", "PUT"));
+    }
+
+    @Test
+    void testKey() {
+        assertEquals(HubResponseCache.key("/api/storageprofile", Arrays.asList(new Pair("b", "2"), new Pair("a", "1")), "application/json"),
+                HubResponseCache.key("/api/storageprofile", Arrays.asList(new Pair("a", "1"), new Pair("b", "2")), "application/json"));
+    }
+
+    @Test
+    void testValidators() {
+        final HubResponseCache cache = new HubResponseCache();
+        final ApiResponse<String> response = new ApiResponse<>(200, headers("etag", "\"v1\""), "body");
+        cache.put("k", response);
+        final HubResponseCache.Entry entry = cache.get("k");
+        assertNotNull(entry);
+        assertEquals("\"v1\"", entry.getETag());
+        assertFalse(entry.isFresh());
+        final HubResponseCache.Entry revalidated = cache.revalidated("k", entry, headers("Cache-Control", "max-age=60"));
+        assertSame(response, revalidated.getResponse());
+        assertEquals("\"v1\"", revalidated.getETag());
+        assertTrue(revalidated.isFresh());
+        // New validators from 304 response
+        final Map<String, List<String>> updated = headers("ETag", "\"v2\"");
+        updated.put("Last-Modified", Collections.singletonList("Wed, 21 Oct 2026 07:28:00 GMT"));
+        final HubResponseCache.Entry merged = cache.revalidated("k", revalidated, updated);
+        assertSame(response, merged.getResponse());
+        assertEquals("\"v2\"", merged.getETag());
+        assertEquals("Wed, 21 Oct 2026 07:28:00 GMT", merged.getLastModified());
+        assertSame(merged, cache.get("k"));
+    }
+
+    @Test
+    void testNoStore() {
+        final HubResponseCache cache = new HubResponseCache();
+        final Map<String, List<String>> headers = headers("ETag", "\"v1\"");
+        headers.put("Cache-Control", Collections.singletonList("private, no-store"));
+        cache.put("k", new ApiResponse<>(200, headers, "body"));
+        assertNull(cache.get("k"));
+        cache.put("k", new ApiResponse<>(200, new HashMap<>(), "body"));
+        assertNull(cache.get("k"));
+    }
+
+    private static Map<String, List<String>> headers(final String name, final String value) {
+        final Map<String, List<String>> headers = new HashMap<>();
+        headers.put(name, Collections.singletonList(value));
+        return headers;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.client.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HubJmxMetricsTest {
+
+    @Test
+    void testRecord() throws Exception {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final HubJmxMetrics metrics = new HubJmxMetrics(server);
+        final HubExchange success = HubExchange.begin("TestResourceApi.apiTestGet", "GET");
+        assertSame(success, HubExchange.current());
+        success.request(0L);
+        success.response(512L);
+        metrics.record(success.withStatus(200).end());
+        assertNull(HubExchange.current());
+        final HubExchange retried = HubExchange.begin("TestResourceApi.apiTestGet", "GET");
+        retried.request(10L);
+        retried.request(10L);
+        metrics.record(retried.withStatus(503).end());
+        metrics.record(HubExchange.begin("TestResourceApi.apiTestGet", "GET").withStatus(0).end());
+        final ObjectName name = new ObjectName(String.format("cloud.katta:type=HubApiClient,name=%s", ObjectName.quote("TestResourceApi.apiTestGet")));
+        assertTrue(server.isRegistered(name));
+        assertEquals(3L, server.getAttribute(name, "Count"));
+        assertEquals(1L, server.getAttribute(name, "Successful"));
+        assertEquals(1L, server.getAttribute(name, "ServerErrors"));
+        assertEquals(1L, server.getAttribute(name, "Failures"));
+        assertEquals(1L, server.getAttribute(name, "Retries"));
+        assertEquals(20L, server.getAttribute(name, "RequestBytes"));
+        assertEquals(512L, server.getAttribute(name, "ResponseBytes"));
+        final HubOperationStatistics statistics = metrics.getStatistics().iterator().next();
+        assertEquals(3L, Arrays.stream(statistics.getHistogram()).sum());
+        server.unregisterMBean(name);
+    }
+}
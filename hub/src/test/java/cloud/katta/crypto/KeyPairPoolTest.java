@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.crypto;
+
+import org.cryptomator.cryptolib.common.P384KeyPair;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyPairPoolTest {
+
+    @Test
+    void testTakeNeverReused() throws Exception {
+        final KeyPairPool pool = new KeyPairPool(2, 60000L);
+        pool.fill();
+        for(int i = 0; i < 100 && pool.size() < 2; i++) {
+            Thread.sleep(50L);
+        }
+        assertEquals(2, pool.size());
+        final P384KeyPair first = pool.take();
+        final P384KeyPair second = pool.take();
+        assertNotSame(first, second);
+        assertNotEquals(first.getPublic(), second.getPublic());
+        assertNotSame(first, pool.take());
+        pool.close();
+        assertEquals(0, pool.size());
+        // Generated inline after close
+        assertNotNull(pool.take());
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    void testExpired() throws Exception {
+        final KeyPairPool pool = new KeyPairPool(1, 0L);
+        pool.fill();
+        for(int i = 0; i < 100 && pool.size() < 1; i++) {
+            Thread.sleep(50L);
+        }
+        final P384KeyPair keyPair = pool.take();
+        assertNotNull(keyPair);
+        assertFalse(keyPair.isDestroyed());
+        pool.close();
+    }
+
+    @Test
+    void testReplaceExpired() throws Exception {
+        final AtomicInteger generated = new AtomicInteger();
+        final KeyPairPool pool = new KeyPairPool(1, 200L) {
+            @Override
+            protected P384KeyPair generate() {
+                generated.incrementAndGet();
+                return super.generate();
+            }
+        };
+        pool.fill();
+        for(int i = 0; i < 100 && pool.size() < 1; i++) {
+            Thread.sleep(50L);
+        }
+        assertEquals(1, generated.get());
+        // Expired key pair replaced in background without take
+        for(int i = 0; i < 100 && generated.get() < 2; i++) {
+            Thread.sleep(50L);
+        }
+        assertTrue(generated.get() >= 2);
+        for(int i = 0; i < 100 && pool.size() < 1; i++) {
+            Thread.sleep(50L);
+        }
+        assertEquals(1, pool.size());
+        pool.close();
+    }
+
+    @Test
+    void testDisabled() {
+        assertNotNull(DeviceKeys.create(KeyPairPool.disabled).getEcKeyPair());
+        assertNotNull(UserKeys.create(KeyPairPool.disabled).ecdhKeyPair());
+        assertEquals(0, KeyPairPool.disabled.size());
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.crypto.wot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import cloud.katta.client.model.UserDto;
+import cloud.katta.crypto.UserKeys;
+import cloud.katta.workflows.exceptions.SecurityFailure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VerifiedSignaturesTest {
+
+    @Test
+    void testVerify() throws Exception {
+        final UserKeys aliceKeys = UserKeys.create();
+        final UserKeys bobKeys = UserKeys.create();
+        final UserDto bob = new UserDto()
+                .id(UUID.randomUUID().toString())
+                .ecdhPublicKey(bobKeys.encodedEcdhPublicKey())
+                .ecdsaPublicKey(bobKeys.encodedEcdsaPublicKey());
+        final String signature = WoT.sign(aliceKeys.ecdsaKeyPair().getPrivate(), UUID.randomUUID().toString(), bob);
+        assertEquals(SignedKeys.fromUser(bob), VerifiedSignatures.verify(signature, aliceKeys.ecdsaKeyPair().getPublic()));
+        // Cached
+        assertEquals(SignedKeys.fromUser(bob), VerifiedSignatures.verify(signature, aliceKeys.ecdsaKeyPair().getPublic()));
+        // Different signer key must not hit verified signature
+        assertThrows(SecurityFailure.class, () -> VerifiedSignatures.verify(signature, UserKeys.create().ecdsaKeyPair().getPublic()));
+    }
+
+    @Test
+    void testVerifyInvalid() throws Exception {
+        final UserKeys aliceKeys = UserKeys.create();
+        final UserKeys bobKeys = UserKeys.create();
+        final UserDto bob = new UserDto()
+                .id(UUID.randomUUID().toString())
+                .ecdhPublicKey(bobKeys.encodedEcdhPublicKey())
+                .ecdsaPublicKey(bobKeys.encodedEcdsaPublicKey());
+        final String signature = WoT.sign(UserKeys.create().ecdsaKeyPair().getPrivate(), UUID.randomUUID().toString(), bob);
+        assertThrows(SecurityFailure.class, () -> VerifiedSignatures.verify(signature, aliceKeys.ecdsaKeyPair().getPublic()));
+        // Failure not remembered
+        assertThrows(SecurityFailure.class, () -> VerifiedSignatures.verify(signature, aliceKeys.ecdsaKeyPair().getPublic()));
+    }
+}
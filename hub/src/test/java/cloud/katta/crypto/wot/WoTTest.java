@@ -12,12 +12,14 @@ import org.junit.jupiter.api.Test;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
 
 import cloud.katta.client.ApiException;
 import cloud.katta.client.model.TrustedUserDto;
@@ -204,4 +206,85 @@ class WoTTest {
         final Map<TrustedUserDto, Integer> actual = WoT.verifyTrusts(Arrays.asList(bobTrust, oscarTrust), Arrays.asList(alice, bob, oscar), decodePublicKey(alice.getEcdsaPublicKey()));
         assertEquals(Collections.singletonMap(bobTrust, len), actual);
     }
+
+    @Test
+    void verifyTrustsParallel() throws Exception {
+        final UserKeys aliceKeys = UserKeys.create();
+        final UserDto alice = new UserDto()
+                .id(UUID.randomUUID().toString())
+                .name("alice")
+                .ecdhPublicKey(aliceKeys.encodedEcdhPublicKey())
+                .ecdsaPublicKey(aliceKeys.encodedEcdsaPublicKey());
+        final List<UserDto> users = new ArrayList<>();
+        users.add(alice);
+        final List<TrustedUserDto> trusts = new ArrayList<>();
+        final int count = 16;
+        for(int i = 0; i < count; i++) {
+            final UserDto user = user(String.format("user%s", i));
+            users.add(user);
+            trusts.add(new TrustedUserDto().trustedUserId(user.getId())
+                    .signatureChain(Collections.singletonList(WoT.sign(aliceKeys.ecdsaKeyPair().getPrivate(), alice.getId(), user))));
+        }
+        // Duplicate user ID with other keys after first occurrence
+        users.add(user("duplicate").id(users.get(1).getId()));
+        // User without ID
+        users.add(user("anonymous").id(null));
+        // Failed chain signed by other user
+        final UserDto oscar = user("oscar");
+        users.add(oscar);
+        trusts.add(new TrustedUserDto().trustedUserId(oscar.getId())
+                .signatureChain(Collections.singletonList(WoT.sign(UserKeys.create().ecdsaKeyPair().getPrivate(), alice.getId(), oscar))));
+        // No ID for trustee
+        trusts.add(new TrustedUserDto().signatureChain(trusts.get(0).getSignatureChain()));
+        // No user found for trustee
+        trusts.add(new TrustedUserDto().trustedUserId(UUID.randomUUID().toString()).signatureChain(trusts.get(0).getSignatureChain()));
+        // No signature chain
+        trusts.add(new TrustedUserDto().trustedUserId(users.get(2).getId()));
+        final ForkJoinPool sequential = new ForkJoinPool(1);
+        final ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            final Map<TrustedUserDto, Integer> expected = WoT.verifyTrusts(trusts, users, aliceKeys.ecdsaKeyPair().getPublic(), sequential);
+            assertEquals(count, expected.size());
+            for(int i = 0; i < count; i++) {
+                assertEquals(Integer.valueOf(1), expected.get(trusts.get(i)));
+            }
+            assertEquals(expected, WoT.verifyTrusts(trusts, users, aliceKeys.ecdsaKeyPair().getPublic(), parallel));
+            assertEquals(expected, WoT.verifyTrusts(trusts, users, aliceKeys.ecdsaKeyPair().getPublic()));
+        }
+        finally {
+            sequential.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    void verifyTrustsDuplicateUserId() throws Exception {
+        final UserKeys aliceKeys = UserKeys.create();
+        final UserDto alice = new UserDto()
+                .id(UUID.randomUUID().toString())
+                .ecdhPublicKey(aliceKeys.encodedEcdhPublicKey())
+                .ecdsaPublicKey(aliceKeys.encodedEcdsaPublicKey());
+        final UserDto bob = user("bob");
+        final TrustedUserDto trust = new TrustedUserDto().trustedUserId(bob.getId())
+                .signatureChain(Collections.singletonList(WoT.sign(aliceKeys.ecdsaKeyPair().getPrivate(), alice.getId(), bob)));
+        // First occurrence with other keys
+        final List<UserDto> users = Arrays.asList(alice, user("impostor").id(bob.getId()), bob);
+        final ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            assertEquals(Collections.emptyMap(), WoT.verifyTrusts(Collections.singletonList(trust), users, aliceKeys.ecdsaKeyPair().getPublic(), parallel));
+            assertEquals(Collections.emptyMap(), WoT.verifyTrusts(Collections.singletonList(trust), users, aliceKeys.ecdsaKeyPair().getPublic()));
+        }
+        finally {
+            parallel.shutdown();
+        }
+    }
+
+    private static UserDto user(final String name) {
+        final UserKeys keys = UserKeys.create();
+        return new UserDto()
+                .id(UUID.randomUUID().toString())
+                .name(name)
+                .ecdhPublicKey(keys.encodedEcdhPublicKey())
+                .ecdsaPublicKey(keys.encodedEcdsaPublicKey());
+    }
 }
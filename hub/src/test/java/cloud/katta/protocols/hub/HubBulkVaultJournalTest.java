@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HubBulkVaultJournalTest {
+
+    @Test
+    void testLastStateByName(@TempDir final Path directory) throws Exception {
+        final Path file = directory.resolve("manifest.journal");
+        final HubBulkVaultJournal journal = new HubBulkVaultJournal(file);
+        assertTrue(journal.load().isEmpty());
+        final UUID first = UUID.randomUUID();
+        final UUID second = UUID.randomUUID();
+        journal.started("a", first);
+        journal.failed("a", first, "Access denied");
+        journal.started("b", second);
+        journal.created("b", second);
+        journal.started("c", UUID.randomUUID());
+        // Interrupted write
+        Files.write(file, "{\"name\":\"d\",\"vaul".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        final Map<String, HubBulkVaultJournal.Entry> entries = new HubBulkVaultJournal(file).load();
+        assertEquals(3, entries.size());
+        assertEquals(HubBulkVaultJournal.State.failed, entries.get("a").getState());
+        assertEquals("Access denied", entries.get("a").getMessage());
+        assertEquals(HubBulkVaultJournal.State.created, entries.get("b").getState());
+        assertEquals(second, entries.get("b").getVaultId());
+        assertEquals(HubBulkVaultJournal.State.started, entries.get("c").getState());
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ServiceUnavailableRetryStrategy;
+import org.apache.http.message.BasicHttpRequest;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HubDeferredAuthorizationTest {
+
+    @Test
+    void testDeferred() throws Exception {
+        final HubDeferredAuthorization authorization = new HubDeferredAuthorization();
+        final HttpRequest bootstrap = new BasicHttpRequest("GET", "/api/config");
+        authorization.process(bootstrap, new BasicHttpContext());
+        assertNull(bootstrap.getFirstHeader("Authorization"));
+        assertFalse(authorization.retryRequest(mock(HttpResponse.class), 1, new BasicHttpContext()));
+        final ServiceUnavailableRetryStrategy retry = mock(ServiceUnavailableRetryStrategy.class);
+        when(retry.retryRequest(any(), anyInt(), any())).thenReturn(true);
+        when(retry.getRetryInterval()).thenReturn(1000L);
+        authorization.set((HttpRequestInterceptor) (request, context) -> request.addHeader("Authorization", "Bearer t"), retry);
+        final HttpRequest request = new BasicHttpRequest("GET", "/api/users/me");
+        authorization.process(request, new BasicHttpContext());
+        assertEquals("Bearer t", request.getFirstHeader("Authorization").getValue());
+        assertTrue(authorization.retryRequest(mock(HttpResponse.class), 1, new BasicHttpContext()));
+        assertEquals(1000L, authorization.getRetryInterval());
+    }
+}
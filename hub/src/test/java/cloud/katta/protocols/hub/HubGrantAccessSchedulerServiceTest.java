@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.exception.BackgroundException;
+
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.GenericType;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cloud.katta.client.ApiException;
+import cloud.katta.client.ApiResponse;
+import cloud.katta.client.HubApiClient;
+import cloud.katta.client.Pair;
+import cloud.katta.crypto.UserKeys;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class HubGrantAccessSchedulerServiceTest {
+
+    @Test
+    void testSingleCheck() throws Exception {
+        final UUID vaultId = UUID.randomUUID();
+        final ScriptedHubApiClient client = new ScriptedHubApiClient(
+                Collections.singletonMap(vaultId.toString(), Collections.singleton(UUID.randomUUID().toString())), 0);
+        final HubSession session = this.session(client);
+        final HubGrantAccessSchedulerService service = new HubGrantAccessSchedulerService(session, 60000L, 0);
+        assertNotNull(service.operate(new DisabledPasswordCallback()));
+        assertEquals(1, client.polls.get());
+        // Only vault with pending users evaluated
+        assertEquals(1, client.evaluations.get());
+    }
+
+    @Test
+    void testSingleCheckNothingPending() throws Exception {
+        final ScriptedHubApiClient client = new ScriptedHubApiClient(
+                Collections.singletonMap(UUID.randomUUID().toString(), Collections.emptySet()), 0);
+        final HubSession session = this.session(client);
+        final HubGrantAccessSchedulerService service = new HubGrantAccessSchedulerService(session, 60000L, 0);
+        assertNotNull(service.operate(new DisabledPasswordCallback()));
+        assertEquals(1, client.polls.get());
+        assertEquals(0, client.evaluations.get());
+        // User keys not loaded without work to do
+        verify(session, never()).getUserKeys(any());
+    }
+
+    @Test
+    void testPollAgainAfterTimeout() throws Exception {
+        // Empty response after waiting timed out
+        final ScriptedHubApiClient client = new ScriptedHubApiClient(Collections.emptyMap(), 0);
+        final HubGrantAccessSchedulerService service = new HubGrantAccessSchedulerService(this.session(client), 60000L, 25);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Host> future = executor.submit(() -> service.operate(new DisabledPasswordCallback()));
+            // No delay before next request
+            this.await(() -> client.polls.get() >= 3);
+            service.shutdown(false);
+            assertNotNull(future.get(5L, TimeUnit.SECONDS));
+            assertEquals(0, client.evaluations.get());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDelayEvaluated() throws Exception {
+        final UUID vaultId = UUID.randomUUID();
+        final ScriptedHubApiClient client = new ScriptedHubApiClient(
+                Collections.singletonMap(vaultId.toString(), Collections.singleton(UUID.randomUUID().toString())), 0);
+        final HubGrantAccessSchedulerService service = new HubGrantAccessSchedulerService(this.session(client), 60000L, 25);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Host> future = executor.submit(() -> service.operate(new DisabledPasswordCallback()));
+            this.await(() -> client.polls.get() >= 2);
+            Thread.sleep(200L);
+            // Only candidates already evaluated pending
+            assertEquals(2, client.polls.get());
+            assertEquals(1, client.evaluations.get());
+            // Shutdown releases delay
+            service.shutdown(false);
+            assertNotNull(future.get(5L, TimeUnit.SECONDS));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testEvaluateAgainAfterPeriod() throws Exception {
+        final UUID vaultId = UUID.randomUUID();
+        final ScriptedHubApiClient client = new ScriptedHubApiClient(
+                Collections.singletonMap(vaultId.toString(), Collections.singleton(UUID.randomUUID().toString())), 0);
+        final HubGrantAccessSchedulerService service = new HubGrantAccessSchedulerService(this.session(client), 100L, 1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Host> future = executor.submit(() -> service.operate(new DisabledPasswordCallback()));
+            // Evaluated users forgotten after scheduler period
+            this.await(() -> client.evaluations.get() >= 2);
+            service.shutdown(false);
+            assertNotNull(future.get(5L, TimeUnit.SECONDS));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testBackoff() throws Exception {
+        final ScriptedHubApiClient client = new ScriptedHubApiClient(null, 503);
+        final HubGrantAccessSchedulerService service = new HubGrantAccessSchedulerService(this.session(client), 60000L, 25);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Host> future = executor.submit(() -> service.operate(new DisabledPasswordCallback()));
+            this.await(() -> client.polls.get() >= 2);
+            // Delay doubled after first retry in 1s
+            Thread.sleep(1000L);
+            assertEquals(2, client.polls.get());
+            service.shutdown(false);
+            assertNotNull(future.get(5L, TimeUnit.SECONDS));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testUnauthorized() throws Exception {
+        final ScriptedHubApiClient client = new ScriptedHubApiClient(null, 401);
+        final HubGrantAccessSchedulerService service = new HubGrantAccessSchedulerService(this.session(client), 60000L, 25);
+        // Retry with next scheduler period
+        assertThrows(BackgroundException.class, () -> service.operate(new DisabledPasswordCallback()));
+        assertEquals(1, client.polls.get());
+    }
+
+    private HubSession session(final HubApiClient client) throws Exception {
+        final HubSession session = mock(HubSession.class);
+        when(session.getHost()).thenReturn(new Host(new HubProtocol(), "localhost"));
+        when(session.getClient()).thenReturn(client);
+        final UserKeys userKeys = UserKeys.create();
+        when(session.getUserKeys(any())).thenReturn(userKeys);
+        when(session.getAccessTokens()).thenReturn(new HubAccessTokenCache(0L));
+        when(session.getVaultMetadata()).thenReturn(new HubVaultMetadataCache());
+        return session;
+    }
+
+    private void await(final Condition condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10000L;
+        while(!condition.test()) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(10L);
+        }
+    }
+
+    private interface Condition {
+        boolean test();
+    }
+
+    /**
+     * Replies to long-poll with fixed pending access grants or failure and fails to retrieve access token for
+     * evaluated vaults
+     */
+    private static final class ScriptedHubApiClient extends HubApiClient {
+        private final AtomicInteger polls = new AtomicInteger();
+        private final AtomicInteger evaluations = new AtomicInteger();
+        private final Map<String, Set<String>> pending;
+        private final int failure;
+
+        /**
+         * @param pending Reply to long-poll
+         * @param failure Status code to fail long-poll with or 0
+         */
+        private ScriptedHubApiClient(final Map<String, Set<String>> pending, final int failure) {
+            super(new Host(new HubProtocol(), "localhost"), HttpClients.createDefault());
+            this.pending = pending;
+            this.failure = failure;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ApiResponse<T> invokeAPI(final String operation, final String path, final String method, final List<Pair> queryParams, final Object body,
+                                            final Map<String, String> headerParams, final Map<String, String> cookieParams, final Map<String, Object> formParams, final String accept,
+                                            final String contentType, final String[] authNames, final GenericType<T> returnType, final boolean isBodyNullable) throws ApiException {
+            if("/api/vaults/users-requiring-access-grant".equals(path)) {
+                polls.incrementAndGet();
+                try {
+                    // Server side processing
+                    Thread.sleep(10L);
+                }
+                catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if(failure > 0) {
+                    throw new ApiException(failure, "Failure");
+                }
+                return new ApiResponse<>(200, Collections.emptyMap(), (T) pending);
+            }
+            if(path.endsWith("/access-token")) {
+                evaluations.incrementAndGet();
+            }
+            throw new ApiException(404, "Not Found");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.UUID;
+
+import cloud.katta.client.model.ConfigDto;
+import cloud.katta.client.model.VaultDto;
+import cloud.katta.crypto.DeviceKeys;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HubSessionSnapshotStoreTest {
+
+    @Test
+    void testSaveLoad(@TempDir final Path directory) {
+        final HubSessionSnapshotStore store = new HubSessionSnapshotStore(directory.resolve("snapshot.jwe"));
+        assertNull(store.getUser());
+        final DeviceKeys deviceKeys = DeviceKeys.create();
+        final VaultDto vault = new VaultDto().id(UUID.randomUUID()).name("v").uvfMetadataFile("metadata").masterkey("secret");
+        store.save(new HubSessionSnapshot(new ConfigDto().apiLevel(5).keycloakRealm("cryptomator"), Collections.singletonList(vault)),
+                "alice", deviceKeys.getEcKeyPair().getPublic());
+        assertEquals("alice", store.getUser());
+        final HubSessionSnapshot snapshot = store.load(deviceKeys.getEcKeyPair().getPrivate());
+        assertNotNull(snapshot);
+        assertEquals(5, snapshot.config().getApiLevel());
+        assertEquals("cryptomator", snapshot.config().getKeycloakRealm());
+        assertEquals(1, snapshot.vaults().size());
+        assertEquals(vault.getId(), snapshot.vaults().get(0).getId());
+        assertEquals("v", snapshot.vaults().get(0).getName());
+        assertNull(snapshot.vaults().get(0).getMasterkey());
+        assertFalse(snapshot.isModified(Collections.singletonList(vault)));
+        assertTrue(snapshot.isModified(Collections.singletonList(new VaultDto().id(vault.getId()).name("v").uvfMetadataFile("changed"))));
+        assertTrue(snapshot.isModified(Collections.emptyList()));
+    }
+
+    @Test
+    void testLoadOtherDeviceKey(@TempDir final Path directory) {
+        final Path file = directory.resolve("snapshot.jwe");
+        final HubSessionSnapshotStore store = new HubSessionSnapshotStore(file);
+        store.save(new HubSessionSnapshot(new ConfigDto().apiLevel(5), null), "alice", DeviceKeys.create().getEcKeyPair().getPublic());
+        assertTrue(Files.exists(file));
+        assertNull(store.load(DeviceKeys.create().getEcKeyPair().getPrivate()));
+        assertFalse(Files.exists(file));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import cloud.katta.client.JSON;
+import cloud.katta.client.api.StorageProfileResourceApi;
+import cloud.katta.client.model.ConfigDto;
+import cloud.katta.client.model.StorageProfileDto;
+import cloud.katta.client.model.StorageProfileS3STSDto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HubStorageProfileCacheTest {
+
+    private static StorageProfileDto profile(final UUID id) throws Exception {
+        // Identifier is read-only
+        return new StorageProfileDto(new JSON().getMapper().readValue(String.format("{\"id\":\"%s\",\"protocol\":\"S3STS\"}", id),
+                StorageProfileS3STSDto.class));
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        final StorageProfileResourceApi api = Mockito.mock(StorageProfileResourceApi.class);
+        final UUID id = UUID.randomUUID();
+        when(api.apiStorageprofileProfileIdGet(id)).thenReturn(profile(id));
+        final HubStorageProfileCache cache = new HubStorageProfileCache(api, Mockito.mock(ConfigDto.class), 60000L);
+        assertEquals(id, cache.get(id).getId());
+        assertSame(cache.getProfile(id), cache.getProfile(id));
+        verify(api, times(1)).apiStorageprofileProfileIdGet(id);
+        cache.invalidate(id);
+        assertEquals(id, cache.get(id).getId());
+        verify(api, times(2)).apiStorageprofileProfileIdGet(id);
+    }
+
+    @Test
+    public void testGetAll() throws Exception {
+        final StorageProfileResourceApi api = Mockito.mock(StorageProfileResourceApi.class);
+        final UUID id = UUID.randomUUID();
+        when(api.apiStorageprofileGet(false)).thenReturn(Collections.singletonList(profile(id)));
+        final HubStorageProfileCache cache = new HubStorageProfileCache(api, Mockito.mock(ConfigDto.class), 60000L);
+        assertEquals(1, cache.getAll().size());
+        assertEquals(1, cache.getAll().size());
+        verify(api, times(1)).apiStorageprofileGet(false);
+        // Populated from listing
+        assertEquals(id, cache.get(id).getId());
+        verify(api, times(0)).apiStorageprofileProfileIdGet(id);
+        cache.invalidateAll();
+        cache.getAll();
+        verify(api, times(2)).apiStorageprofileGet(false);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.s3.S3Protocol;
+import ch.cyberduck.core.s3.S3Session;
+
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.GenericType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import cloud.katta.client.ApiException;
+import cloud.katta.client.ApiResponse;
+import cloud.katta.client.HubApiClient;
+import cloud.katta.client.Pair;
+import cloud.katta.client.model.SettingsDto;
+import cloud.katta.client.model.UserDto;
+import cloud.katta.crypto.KeyPairPool;
+import cloud.katta.crypto.UserKeys;
+import cloud.katta.model.StorageProfileDtoWrapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class HubUVFVaultProviderTest {
+
+    @Test
+    void testGrantFailureBeforeTemplate() throws Exception {
+        final RecordingHubApiClient client = new RecordingHubApiClient("/access-tokens");
+        final HubSession hub = this.session(client);
+        final S3Session storage = mock(S3Session.class);
+        when(storage.getHost()).thenReturn(new Host(new S3Protocol(), "s3.amazonaws.com"));
+        final UUID vaultId = UUID.randomUUID();
+        final String region = new HubStorageLocationService.StorageLocation(UUID.randomUUID().toString(), "eu-central-1", "S3").getIdentifier();
+        assertThrows(BackgroundException.class, () -> new HubUVFVaultProvider(null, new DisabledLoginCallback()).create(hub, region,
+                new Path("v", EnumSet.of(Path.Type.volume, Path.Type.directory)), vaultId, new HubUVFVaultProvider.Storage(storage, null)));
+        // Vault created and deleted in Hub after failure granting access
+        final int created = client.requests.indexOf("PUT /api/vaults/" + vaultId);
+        assertTrue(created >= 0);
+        assertTrue(created < client.requests.indexOf("POST /api/vaults/" + vaultId + "/access-tokens"));
+        assertTrue(client.requests.indexOf("POST /api/vaults/" + vaultId + "/access-tokens") < client.requests.indexOf("DELETE /api/vaults/" + vaultId));
+        // No bucket created with template
+        verify(storage, never()).getFeature(any());
+    }
+
+    private HubSession session(final HubApiClient client) throws Exception {
+        final HubSession hub = mock(HubSession.class);
+        when(hub.getClient()).thenReturn(client);
+        when(hub.getKeyPairs()).thenReturn(KeyPairPool.disabled);
+        when(hub.getMe()).thenReturn(new UserDto().id(UUID.randomUUID().toString()));
+        final UserKeys userKeys = UserKeys.create();
+        when(hub.getUserKeys(any())).thenReturn(userKeys);
+        final StorageProfileDtoWrapper profile = mock(StorageProfileDtoWrapper.class);
+        when(profile.getBucketPrefix()).thenReturn("katta-");
+        final HubStorageProfileCache profiles = mock(HubStorageProfileCache.class);
+        when(profiles.get(any())).thenReturn(profile);
+        when(hub.getStorageProfiles()).thenReturn(profiles);
+        return hub;
+    }
+
+    /**
+     * Records requests and fails requests to path with given suffix
+     */
+    private static final class RecordingHubApiClient extends HubApiClient {
+        private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+        private final String failure;
+
+        private RecordingHubApiClient(final String failure) {
+            super(new Host(new HubProtocol(), "localhost"), HttpClients.createDefault());
+            this.failure = failure;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ApiResponse<T> invokeAPI(final String operation, final String path, final String method, final List<Pair> queryParams, final Object body,
+                                            final Map<String, String> headerParams, final Map<String, String> cookieParams, final Map<String, Object> formParams, final String accept,
+                                            final String contentType, final String[] authNames, final GenericType<T> returnType, final boolean isBodyNullable) throws ApiException {
+            requests.add(String.format("%s %s", method, path));
+            if(path.endsWith(failure)) {
+                throw new ApiException(500, "Internal Server Error");
+            }
+            if(path.startsWith("/api/settings")) {
+                return new ApiResponse<>(200, Collections.emptyMap(), (T) new SettingsDto().enableAutomaticAccessGrant(false).automaticAccessGrantTrustThreshold(-1));
+            }
+            return new ApiResponse<>(200, Collections.emptyMap(), null);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import cloud.katta.crypto.UserKeys;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HubUserKeysHolderTest {
+
+    @Test
+    void testRefreshAhead() throws Exception {
+        final UserKeys initial = UserKeys.create();
+        final UserKeys refreshed = UserKeys.create();
+        final CountDownLatch loaded = new CountDownLatch(1);
+        final HubUserKeysHolder holder = new HubUserKeysHolder(1000L, 500L, () -> {
+            loaded.countDown();
+            return refreshed;
+        });
+        holder.set(initial);
+        assertSame(initial, holder.get());
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        // Wait for refreshed keys to be set
+        for(int i = 0; i < 50 && holder.get() != refreshed; i++) {
+            Thread.sleep(10L);
+        }
+        // Inline loader not called after refresh
+        assertSame(refreshed, holder.get(() -> fail("Unexpected inline retrieval")));
+        holder.invalidate();
+        assertNull(holder.get());
+    }
+
+    @Test
+    void testSkipRefreshUnused() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final HubUserKeysHolder holder = new HubUserKeysHolder(200L, 100L, () -> {
+            count.incrementAndGet();
+            return UserKeys.create();
+        });
+        holder.set(UserKeys.create());
+        Thread.sleep(400L);
+        assertEquals(0, count.get());
+        assertNull(holder.get());
+        final UserKeys inline = UserKeys.create();
+        assertSame(inline, holder.get(() -> inline));
+    }
+
+    @Test
+    void testSkipRefreshIdleAfterRefresh() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final HubUserKeysHolder holder = new HubUserKeysHolder(300L, 100L, () -> {
+            count.incrementAndGet();
+            return UserKeys.create();
+        });
+        holder.set(UserKeys.create());
+        // Read once before first refresh only
+        assertNotNull(holder.get());
+        for(int i = 0; i < 50 && count.get() == 0; i++) {
+            Thread.sleep(10L);
+        }
+        assertEquals(1, count.get());
+        // Idle past second scheduled refresh and expiry
+        Thread.sleep(700L);
+        assertEquals(1, count.get());
+        assertNull(holder.get());
+    }
+
+    @Test
+    void testCoalesceInline() throws Exception {
+        final HubUserKeysHolder holder = new HubUserKeysHolder(60000L, 1000L, () -> fail("Unexpected refresh"));
+        final UserKeys inline = UserKeys.create();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger count = new AtomicInteger();
+        final AtomicReference<UserKeys> first = new AtomicReference<>();
+        final AtomicReference<UserKeys> second = new AtomicReference<>();
+        final HubUserKeysHolder.Loader loader = () -> {
+            count.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await();
+            }
+            catch(InterruptedException e) {
+                throw new ConnectionCanceledException(e);
+            }
+            return inline;
+        };
+        final Thread leader = new Thread(() -> first.set(this.get(holder, loader)));
+        leader.start();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        final Thread follower = new Thread(() -> second.set(this.get(holder, loader)));
+        follower.start();
+        // Follower blocked on in-flight retrieval
+        await(follower);
+        // Monitor not held while retrieving keys
+        assertTimeoutPreemptively(Duration.ofSeconds(5L), () -> holder.set(null));
+        release.countDown();
+        leader.join();
+        follower.join();
+        assertSame(inline, first.get());
+        assertSame(inline, second.get());
+        assertEquals(1, count.get());
+        // Not cached after keys were set in the meantime
+        assertNull(holder.get());
+    }
+
+    @Test
+    void testDiscardRefreshAfterLogout() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch refreshed = new CountDownLatch(1);
+        final HubUserKeysHolder holder = new HubUserKeysHolder(1000L, 500L, () -> {
+            entered.countDown();
+            try {
+                release.await();
+            }
+            catch(InterruptedException e) {
+                throw new ConnectionCanceledException(e);
+            }
+            refreshed.countDown();
+            return UserKeys.create();
+        });
+        holder.set(UserKeys.create());
+        assertNotNull(holder.get());
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        // Logout and login while refresh is in-flight
+        holder.invalidate();
+        final UserKeys login = UserKeys.create();
+        holder.set(login);
+        release.countDown();
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100L);
+        assertSame(login, holder.get());
+    }
+
+    private UserKeys get(final HubUserKeysHolder holder, final HubUserKeysHolder.Loader loader) {
+        try {
+            return holder.get(loader);
+        }
+        catch(BackgroundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Wait until thread is parked
+     */
+    private static void await(final Thread thread) throws InterruptedException {
+        for(int i = 0; i < 500 && thread.getState() != Thread.State.WAITING; i++) {
+            Thread.sleep(10L);
+        }
+        assertEquals(Thread.State.WAITING, thread.getState());
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.features.Vault;
+import ch.cyberduck.core.vault.VaultProvider;
+import ch.cyberduck.core.vault.VaultRegistry;
+import ch.cyberduck.core.vault.VaultUnlockCancelException;
+
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.GenericType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cloud.katta.client.ApiException;
+import cloud.katta.client.ApiResponse;
+import cloud.katta.client.HubApiClient;
+import cloud.katta.client.Pair;
+import cloud.katta.client.model.VaultDto;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class HubVaultListServiceTest {
+
+    private static final Path ROOT = new Path("/", EnumSet.of(Path.Type.volume, Path.Type.directory));
+
+    @Test
+    void testListConcurrentlyInOrder() throws Exception {
+        final List<VaultDto> accessible = vaults(5);
+        final VaultRegistry registry = mock(VaultRegistry.class);
+        final VaultProvider provider = mock(VaultProvider.class);
+        when(provider.load(any(), any(), any(), any())).thenAnswer(invocation -> {
+            final Path home = invocation.getArgument(1);
+            // First vaults in listing complete last
+            Thread.sleep(20L * (accessible.size() - index(accessible, home)));
+            return vault(home);
+        });
+        final AttributedList<Path> list = new HubVaultListService(this.session(accessible, registry), provider, 4, false)
+                .list(ROOT, new DisabledListProgressListener());
+        assertEquals(names(accessible), names(list));
+        verify(registry, times(5)).add(any());
+    }
+
+    @Test
+    void testSkipVaultUnlockCancel() throws Exception {
+        final List<VaultDto> accessible = vaults(5);
+        final VaultProvider provider = mock(VaultProvider.class);
+        when(provider.load(any(), any(), any(), any())).thenAnswer(invocation -> {
+            final Path home = invocation.getArgument(1);
+            if(2 == index(accessible, home)) {
+                throw new VaultUnlockCancelException(home);
+            }
+            return vault(home);
+        });
+        final List<VaultDto> expected = new ArrayList<>(accessible);
+        expected.remove(2);
+        for(int concurrency : new int[]{1, 4}) {
+            final VaultRegistry registry = mock(VaultRegistry.class);
+            final AttributedList<Path> list = new HubVaultListService(this.session(accessible, registry), provider, concurrency, false)
+                    .list(ROOT, new DisabledListProgressListener());
+            // Other vaults listed in order
+            assertEquals(names(expected), names(list));
+            verify(registry, times(4)).add(any());
+        }
+    }
+
+    @Test
+    void testCancelOnFailure() throws Exception {
+        final List<VaultDto> accessible = vaults(5);
+        final VaultRegistry registry = mock(VaultRegistry.class);
+        final VaultProvider provider = mock(VaultProvider.class);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final AtomicInteger loads = new AtomicInteger();
+        final AtomicInteger interrupted = new AtomicInteger();
+        when(provider.load(any(), any(), any(), any())).thenAnswer(invocation -> {
+            loads.incrementAndGet();
+            final Path home = invocation.getArgument(1);
+            if(0 == index(accessible, home)) {
+                assertTrue(blocked.await(5L, TimeUnit.SECONDS));
+                throw new AccessDeniedException("Denied");
+            }
+            try {
+                blocked.countDown();
+                new CountDownLatch(1).await();
+            }
+            catch(InterruptedException e) {
+                interrupted.incrementAndGet();
+                throw new ConnectionCanceledException(e);
+            }
+            return vault(home);
+        });
+        assertThrows(AccessDeniedException.class, () -> new HubVaultListService(this.session(accessible, registry), provider, 2, false)
+                .list(ROOT, new DisabledListProgressListener()));
+        // All outstanding loads interrupted
+        for(int i = 0; i < 500 && interrupted.get() < loads.get() - 1; i++) {
+            Thread.sleep(10L);
+        }
+        assertEquals(loads.get() - 1, interrupted.get());
+        // Queued loads not started
+        assertTrue(loads.get() < accessible.size());
+        verify(registry, never()).add(any());
+    }
+
+    private HubSession session(final List<VaultDto> accessible, final VaultRegistry registry) {
+        final HubSession session = mock(HubSession.class);
+        when(session.getHost()).thenReturn(new Host(new HubProtocol(), "localhost"));
+        when(session.getClient()).thenReturn(new AccessibleHubApiClient(accessible));
+        when(session.getRegistry()).thenReturn(registry);
+        when(session.getUnlockTraces()).thenReturn(new HubVaultUnlockTraces());
+        return session;
+    }
+
+    private static List<VaultDto> vaults(final int count) {
+        final List<VaultDto> vaults = new ArrayList<>();
+        for(int i = 0; i < count; i++) {
+            vaults.add(new VaultDto().id(UUID.randomUUID()).name(String.format("vault%d", i)).archived(false));
+        }
+        return vaults;
+    }
+
+    private static Vault vault(final Path home) {
+        final Vault vault = mock(Vault.class);
+        when(vault.getHome()).thenReturn(home);
+        return vault;
+    }
+
+    private static int index(final List<VaultDto> accessible, final Path home) {
+        for(int i = 0; i < accessible.size(); i++) {
+            if(accessible.get(i).getId().toString().equals(home.getName())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<String> names(final List<VaultDto> accessible) {
+        final List<String> names = new ArrayList<>();
+        for(VaultDto vaultDto : accessible) {
+            names.add(vaultDto.getId().toString());
+        }
+        return names;
+    }
+
+    private static List<String> names(final AttributedList<Path> list) {
+        final List<String> names = new ArrayList<>();
+        for(Path file : list) {
+            names.add(file.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Replies with fixed list of accessible vaults
+     */
+    private static final class AccessibleHubApiClient extends HubApiClient {
+        private final List<VaultDto> accessible;
+
+        private AccessibleHubApiClient(final List<VaultDto> accessible) {
+            super(new Host(new HubProtocol(), "localhost"), HttpClients.createDefault());
+            this.accessible = accessible;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ApiResponse<T> invokeAPI(final String operation, final String path, final String method, final List<Pair> queryParams, final Object body,
+                                            final Map<String, String> headerParams, final Map<String, String> cookieParams, final Map<String, Object> formParams, final String accept,
+                                            final String contentType, final String[] authNames, final GenericType<T> returnType, final boolean isBodyNullable) throws ApiException {
+            if("/api/vaults/accessible".equals(path)) {
+                return new ApiResponse<>(200, Collections.emptyMap(), (T) accessible);
+            }
+            throw new ApiException(404, "Not Found");
+        }
+    }
+}
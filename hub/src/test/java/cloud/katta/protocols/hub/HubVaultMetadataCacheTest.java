@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import cloud.katta.crypto.uvf.HubVaultKeys;
+import cloud.katta.crypto.uvf.UVFMetadataPayload;
+import cloud.katta.crypto.uvf.VaultMetadataAutomaticAccessGrantDto;
+import com.nimbusds.jose.JWEObjectJSON;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class HubVaultMetadataCacheTest {
+
+    @Test
+    void testGetPayload() throws Exception {
+        final UUID vaultId = UUID.randomUUID();
+        final HubVaultKeys vaultKeys = HubVaultKeys.create();
+        final String encrypted = new HubVaultMetadataUVFProvider(new UVFMetadataPayload()
+                .withAutomaticAccessGrant(new VaultMetadataAutomaticAccessGrantDto().enabled(true).trustThreshold(-1)),
+                "apiUrl", vaultId, vaultKeys.serialize()).encrypt();
+        final HubVaultMetadataCache cache = new HubVaultMetadataCache();
+        final JWEObjectJSON jwe = JWEObjectJSON.parse(encrypted);
+        final HubVaultMetadataUVFProvider provider = spy(new HubVaultMetadataUVFProvider(jwe, vaultKeys));
+        final UVFMetadataPayload payload = cache.getPayload(vaultId, jwe, provider);
+        // Unchanged vault metadata retrieved again
+        final JWEObjectJSON unchanged = JWEObjectJSON.parse(encrypted);
+        final HubVaultMetadataUVFProvider other = spy(new HubVaultMetadataUVFProvider(unchanged, vaultKeys));
+        final UVFMetadataPayload copy = cache.getPayload(vaultId, unchanged, other);
+        assertNotSame(payload, copy);
+        assertEquals(payload, copy);
+        // Modification not visible to other callers
+        copy.automaticAccessGrant().enabled(false);
+        assertEquals(payload, cache.getPayload(vaultId, unchanged, other));
+        verify(provider, times(1)).getPayload();
+        verify(other, times(0)).getPayload();
+        cache.invalidateAll();
+        assertNotSame(payload, cache.getPayload(vaultId, unchanged, other));
+        verify(other, times(1)).getPayload();
+    }
+
+    @Test
+    void testInvalidateVault() throws Exception {
+        final UUID vaultId = UUID.randomUUID();
+        final HubVaultKeys vaultKeys = HubVaultKeys.create();
+        final String encrypted = new HubVaultMetadataUVFProvider(new UVFMetadataPayload(), "apiUrl", vaultId, vaultKeys.serialize()).encrypt();
+        final UUID otherId = UUID.randomUUID();
+        final HubVaultKeys otherKeys = HubVaultKeys.create();
+        final String otherEncrypted = new HubVaultMetadataUVFProvider(new UVFMetadataPayload(), "apiUrl", otherId, otherKeys.serialize()).encrypt();
+        final HubVaultMetadataCache cache = new HubVaultMetadataCache();
+        final JWEObjectJSON jwe = JWEObjectJSON.parse(encrypted);
+        final HubVaultMetadataUVFProvider provider = spy(new HubVaultMetadataUVFProvider(jwe, vaultKeys));
+        final JWEObjectJSON otherJwe = JWEObjectJSON.parse(otherEncrypted);
+        final HubVaultMetadataUVFProvider other = spy(new HubVaultMetadataUVFProvider(otherJwe, otherKeys));
+        cache.getPayload(vaultId, jwe, provider);
+        cache.getPayload(otherId, otherJwe, other);
+        cache.invalidate(vaultId);
+        cache.getPayload(vaultId, jwe, provider);
+        cache.getPayload(otherId, otherJwe, other);
+        verify(provider, times(2)).getPayload();
+        // Metadata of other vault retained
+        verify(other, times(1)).getPayload();
+    }
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.LoginFailureException;
+import ch.cyberduck.core.exception.UnsupportedException;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.features.Vault;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.vault.VaultProvider;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class HubVaultRegistryTest {
+
+    @Test
+    void testFindByBucket() {
+        final HubVaultRegistry registry = new HubVaultRegistry(new DisabledPasswordCallback());
+        final UUID vaultId = UUID.randomUUID();
+        final Path bucket = new Path("katta-" + vaultId, EnumSet.of(Path.Type.volume, Path.Type.directory));
+        final HubUVFVault vault = new HubUVFVault(null, bucket);
+        registry.add(vault);
+        final Path file = new Path(new Path(bucket, "d", EnumSet.of(Path.Type.directory)), "f", EnumSet.of(Path.Type.file));
+        assertTrue(registry.contains(bucket));
+        assertTrue(registry.contains(file));
+        assertSame(vault, registry.find(null, file, false));
+        final Path other = new Path("katta-" + UUID.randomUUID(), EnumSet.of(Path.Type.volume, Path.Type.directory));
+        assertFalse(registry.contains(other));
+        assertSame(Vault.DISABLED, registry.find(null, other, false));
+        assertFalse(registry.contains(new Path("/", EnumSet.of(Path.Type.volume, Path.Type.directory))));
+    }
+
+    @Test
+    void testFindPlaceholder() {
+        final HubVaultRegistry registry = new HubVaultRegistry(new DisabledPasswordCallback());
+        final UUID vaultId = UUID.randomUUID();
+        final Path placeholder = new Path(vaultId.toString(), EnumSet.of(Path.Type.directory, Path.Type.volume, Path.Type.vault));
+        final HubLazyUVFVault vault = new HubLazyUVFVault(null, null, placeholder);
+        registry.add(vault);
+        assertTrue(registry.contains(placeholder));
+        assertSame(vault, registry.find(null, new Path(placeholder, "f", EnumSet.of(Path.Type.file)), false));
+        // Not loaded
+        assertFalse(registry.contains(new Path("katta-" + vaultId, EnumSet.of(Path.Type.volume, Path.Type.directory))));
+        registry.close(placeholder);
+        assertFalse(registry.contains(placeholder));
+    }
+
+    @Test
+    void testCloseByBucket() {
+        final HubVaultRegistry registry = new HubVaultRegistry(new DisabledPasswordCallback());
+        final UUID vaultId = UUID.randomUUID();
+        final Path placeholder = new Path(vaultId.toString(), EnumSet.of(Path.Type.directory, Path.Type.volume, Path.Type.vault));
+        final Path bucket = new Path("katta-" + vaultId, EnumSet.of(Path.Type.volume, Path.Type.directory));
+        final AtomicInteger closed = new AtomicInteger();
+        registry.add(new HubLazyUVFVault(null, null, placeholder, loaded(bucket, closed, null)));
+        assertTrue(registry.contains(bucket));
+        // Closed with bucket of vault registered with placeholder
+        registry.close(bucket);
+        assertFalse(registry.contains(bucket));
+        assertFalse(registry.contains(placeholder));
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void testEvict() throws Exception {
+        final HubVaultRegistry registry = new HubVaultRegistry(new DisabledPasswordCallback());
+        final UUID vaultId = UUID.randomUUID();
+        final Path placeholder = new Path(vaultId.toString(), EnumSet.of(Path.Type.directory, Path.Type.volume, Path.Type.vault));
+        final Path bucket = new Path("katta-" + vaultId, EnumSet.of(Path.Type.volume, Path.Type.directory));
+        final AtomicInteger closed = new AtomicInteger();
+        final HubLazyUVFVault vault = new HubLazyUVFVault(null, null, placeholder, new HubUVFVault(null, bucket) {
+            @Override
+            public synchronized void close() {
+                closed.incrementAndGet();
+            }
+        });
+        registry.add(vault);
+        final Path file = new Path(bucket, "f", EnumSet.of(Path.Type.file));
+        assertTrue(vault.isLoaded());
+        assertSame(vault, registry.find(null, file, false));
+        assertEquals(0, registry.evict(60000L));
+        assertTrue(vault.isLoaded());
+        Thread.sleep(5L);
+        assertEquals(1, registry.evict(1L));
+        assertEquals(1, closed.get());
+        assertFalse(vault.isLoaded());
+        // Still resolved to reopen on next access
+        assertTrue(registry.contains(file));
+        assertSame(vault, registry.find(null, file, false));
+        assertEquals(0, registry.evict(1L));
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void testEvictWithOpenStream() throws Exception {
+        final HubVaultRegistry registry = new HubVaultRegistry(new DisabledPasswordCallback());
+        final UUID vaultId = UUID.randomUUID();
+        final Path placeholder = new Path(vaultId.toString(), EnumSet.of(Path.Type.directory, Path.Type.volume, Path.Type.vault));
+        final Path bucket = new Path("katta-" + vaultId, EnumSet.of(Path.Type.volume, Path.Type.directory));
+        final AtomicInteger closed = new AtomicInteger();
+        final HubLazyUVFVault vault = new HubLazyUVFVault(null, null, placeholder, loaded(bucket, closed, null));
+        registry.add(vault);
+        final Read read = vault.getFeature(null, Read.class, null);
+        final InputStream in = read.read(new Path(bucket, "f", EnumSet.of(Path.Type.file)), new TransferStatus(), new DisabledConnectionCallback());
+        Thread.sleep(5L);
+        // Stream still in use
+        assertEquals(0, registry.evict(1L));
+        assertTrue(vault.isLoaded());
+        assertEquals(1, in.read());
+        in.close();
+        Thread.sleep(5L);
+        assertEquals(1, registry.evict(1L));
+        assertEquals(1, closed.get());
+        // Closing again does not return lease twice
+        in.close();
+        assertEquals(0, registry.evict(1L));
+    }
+
+    @Test
+    void testEvictDuringFeatureCall() throws Exception {
+        final HubVaultRegistry registry = new HubVaultRegistry(new DisabledPasswordCallback());
+        final UUID vaultId = UUID.randomUUID();
+        final Path placeholder = new Path(vaultId.toString(), EnumSet.of(Path.Type.directory, Path.Type.volume, Path.Type.vault));
+        final Path bucket = new Path("katta-" + vaultId, EnumSet.of(Path.Type.volume, Path.Type.directory));
+        final AtomicInteger closed = new AtomicInteger();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final HubLazyUVFVault vault = new HubLazyUVFVault(null, null, placeholder, new HubUVFVault(null, bucket) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T getFeature(final Session<?> hub, final Class<T> type, final T delegate) {
+                return (T) new Read() {
+                    @Override
+                    public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+                        entered.countDown();
+                        try {
+                            release.await();
+                        }
+                        catch(InterruptedException e) {
+                            throw new ConnectionCanceledException(e);
+                        }
+                        return null;
+                    }
+                };
+            }
+
+            @Override
+            public synchronized void close() {
+                closed.incrementAndGet();
+            }
+        });
+        registry.add(vault);
+        final Read read = vault.getFeature(null, Read.class, null);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<InputStream> future = executor.submit(() -> read.read(new Path(bucket, "f", EnumSet.of(Path.Type.file)),
+                    new TransferStatus(), new DisabledConnectionCallback()));
+            entered.await();
+            Thread.sleep(5L);
+            // Call still running
+            assertEquals(0, registry.evict(1L));
+            assertEquals(0, closed.get());
+            release.countDown();
+            future.get();
+            Thread.sleep(5L);
+            assertEquals(1, registry.evict(1L));
+            assertEquals(1, closed.get());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testReloadAfterEvict() throws Exception {
+        final UUID vaultId = UUID.randomUUID();
+        final Path placeholder = new Path(vaultId.toString(), EnumSet.of(Path.Type.directory, Path.Type.volume, Path.Type.vault));
+        final Path bucket = new Path("katta-" + vaultId, EnumSet.of(Path.Type.volume, Path.Type.directory));
+        final AtomicInteger closed = new AtomicInteger();
+        final AtomicInteger reads = new AtomicInteger();
+        final VaultProvider provider = mock(VaultProvider.class);
+        final Vault reloaded = loaded(bucket, closed, reads);
+        when(provider.load(any(), any(), any(), any())).thenReturn(reloaded);
+        final HubLazyUVFVault vault = new HubLazyUVFVault(null, provider, placeholder, loaded(bucket, closed, null));
+        // Feature obtained before eviction
+        final Read read = vault.getFeature(null, Read.class, null);
+        Thread.sleep(5L);
+        assertTrue(vault.evict(1L));
+        assertFalse(vault.isLoaded());
+        try (InputStream in = read.read(new Path(bucket, "f", EnumSet.of(Path.Type.file)), new TransferStatus(), new DisabledConnectionCallback())) {
+            assertEquals(1, in.read());
+        }
+        assertTrue(vault.isLoaded());
+        // Forwarded to feature of reloaded vault
+        assertEquals(1, reads.get());
+        verify(provider, times(1)).load(any(), any(), any(), any());
+    }
+
+    @Test
+    void testEvictWhileLoading() throws Exception {
+        final HubVaultRegistry registry = new HubVaultRegistry(new DisabledPasswordCallback());
+        final UUID vaultId = UUID.randomUUID();
+        final Path placeholder = new Path(vaultId.toString(), EnumSet.of(Path.Type.directory, Path.Type.volume, Path.Type.vault));
+        final Path bucket = new Path("katta-" + vaultId, EnumSet.of(Path.Type.volume, Path.Type.directory));
+        final AtomicInteger closed = new AtomicInteger();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final VaultProvider provider = mock(VaultProvider.class);
+        final Vault reloaded = loaded(bucket, closed, null);
+        when(provider.load(any(), any(), any(), any())).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            return reloaded;
+        });
+        final HubLazyUVFVault loading = new HubLazyUVFVault(null, provider, placeholder);
+        registry.add(loading);
+        final UUID idleId = UUID.randomUUID();
+        final HubLazyUVFVault idle = new HubLazyUVFVault(null, null,
+                new Path(idleId.toString(), EnumSet.of(Path.Type.directory, Path.Type.volume, Path.Type.vault)),
+                loaded(new Path("katta-" + idleId, EnumSet.of(Path.Type.volume, Path.Type.directory)), closed, null));
+        registry.add(idle);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Vault> future = executor.submit(loading::load);
+            entered.await();
+            Thread.sleep(5L);
+            // Other vaults evicted while load is in-flight
+            final int evicted = assertTimeoutPreemptively(Duration.ofSeconds(10L), () -> registry.evict(1L));
+            assertEquals(1, evicted);
+            assertFalse(idle.isLoaded());
+            release.countDown();
+            assertSame(reloaded, future.get());
+            assertTrue(loading.isLoaded());
+        }
+        finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRebaseToBucket() throws Exception {
+        final UUID vaultId = UUID.randomUUID();
+        final Path placeholder = new Path(vaultId.toString(), EnumSet.of(Path.Type.directory, Path.Type.volume, Path.Type.vault));
+        final Path bucket = new Path("katta-" + vaultId, EnumSet.of(Path.Type.volume, Path.Type.directory));
+        final AtomicReference<Path> requested = new AtomicReference<>();
+        final HubLazyUVFVault vault = new HubLazyUVFVault(null, null, placeholder, new HubUVFVault(null, bucket) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T getFeature(final Session<?> hub, final Class<T> type, final T delegate) {
+                return (T) new Read() {
+                    @Override
+                    public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) {
+                        requested.set(file);
+                        return new ByteArrayInputStream(new byte[0]);
+                    }
+                };
+            }
+        });
+        final Path file = new Path(new Path(placeholder, "d", EnumSet.of(Path.Type.directory)), "f", EnumSet.of(Path.Type.file));
+        vault.getFeature(null, Read.class, null).read(file, new TransferStatus(), new DisabledConnectionCallback()).close();
+        assertEquals(new Path(new Path(bucket, "d", EnumSet.of(Path.Type.directory)), "f", EnumSet.of(Path.Type.file)), requested.get());
+        final Path other = new Path("katta-" + UUID.randomUUID(), EnumSet.of(Path.Type.volume, Path.Type.directory));
+        vault.getFeature(null, Read.class, null).read(other, new TransferStatus(), new DisabledConnectionCallback()).close();
+        assertSame(other, requested.get());
+    }
+
+    @Test
+    void testLoadFailure() throws Exception {
+        final Path placeholder = new Path(UUID.randomUUID().toString(), EnumSet.of(Path.Type.directory, Path.Type.volume, Path.Type.vault));
+        final VaultProvider provider = mock(VaultProvider.class);
+        final LoginFailureException failure = new LoginFailureException("Denied");
+        when(provider.load(any(), any(), any(), any())).thenThrow(failure);
+        final HubLazyUVFVault vault = new HubLazyUVFVault(null, provider, placeholder);
+        final Read read = vault.getFeature(null, Read.class, null);
+        // Original failure from feature call
+        assertSame(failure, assertThrows(LoginFailureException.class, () -> read.read(new Path(placeholder, "f", EnumSet.of(Path.Type.file)),
+                new TransferStatus(), new DisabledConnectionCallback())));
+        assertFalse(vault.isLoaded());
+        verify(provider, times(2)).load(any(), any(), any(), any());
+    }
+
+    @Test
+    void testObjectMethodsWithoutLoad() throws Exception {
+        final Path placeholder = new Path(UUID.randomUUID().toString(), EnumSet.of(Path.Type.directory, Path.Type.volume, Path.Type.vault));
+        final VaultProvider provider = mock(VaultProvider.class);
+        when(provider.load(any(), any(), any(), any())).thenThrow(new LoginFailureException("Denied"));
+        final HubLazyUVFVault vault = new HubLazyUVFVault(null, provider, placeholder);
+        final Read read = vault.getFeature(null, Read.class, null);
+        verify(provider, times(1)).load(any(), any(), any(), any());
+        assertNotNull(read.toString());
+        assertEquals(read.hashCode(), read.hashCode());
+        assertEquals(read, read);
+        assertNotEquals(read, vault.getFeature(null, Read.class, null));
+        // No further attempt to load for methods of object
+        verify(provider, times(2)).load(any(), any(), any(), any());
+    }
+
+    @Test
+    void testUndeclaredFailure() throws Exception {
+        final Path placeholder = new Path(UUID.randomUUID().toString(), EnumSet.of(Path.Type.directory, Path.Type.volume, Path.Type.vault));
+        final VaultProvider provider = mock(VaultProvider.class);
+        final LoginFailureException failure = new LoginFailureException("Denied");
+        when(provider.load(any(), any(), any(), any())).thenThrow(failure);
+        final HubLazyUVFVault vault = new HubLazyUVFVault(null, provider, placeholder);
+        final Probe probe = vault.getFeature(null, Probe.class, null);
+        // Not declared by method
+        assertSame(failure, assertThrows(IllegalStateException.class, probe::name).getCause());
+    }
+
+    @Test
+    void testPlaceholderCreate() {
+        final Path placeholder = new Path(UUID.randomUUID().toString(), EnumSet.of(Path.Type.directory, Path.Type.volume, Path.Type.vault));
+        final HubLazyUVFVault vault = new HubLazyUVFVault(null, null, placeholder);
+        assertThrows(UnsupportedException.class, () -> vault.create(null, null, null));
+    }
+
+    /**
+     * Feature with method not declaring any failure
+     */
+    interface Probe {
+        String name();
+    }
+
+    /**
+     * @param closed Incremented when closed
+     * @param reads  Incremented on read or null
+     * @return Vault with read feature
+     */
+    private static HubUVFVault loaded(final Path bucket, final AtomicInteger closed, final AtomicInteger reads) {
+        return new HubUVFVault(null, bucket) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T getFeature(final Session<?> hub, final Class<T> type, final T delegate) {
+                return (T) new Read() {
+                    @Override
+                    public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+                        if(reads != null) {
+                            reads.incrementAndGet();
+                        }
+                        return new ByteArrayInputStream(new byte[]{1});
+                    }
+                };
+            }
+
+            @Override
+            public synchronized void close() {
+                closed.incrementAndGet();
+            }
+        };
+    }
+}
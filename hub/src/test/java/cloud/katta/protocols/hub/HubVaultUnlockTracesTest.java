@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.hub;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HubVaultUnlockTracesTest {
+
+    @Test
+    void testSummary() throws Exception {
+        final HubVaultUnlockTraces traces = new HubVaultUnlockTraces();
+        assertNull(traces.summary());
+        final UUID vaultId = UUID.randomUUID();
+        final HubVaultUnlockTrace trace = traces.start(vaultId);
+        try (HubVaultUnlockTrace.Span span = trace.span("access-token")) {
+            Thread.sleep(1L);
+            span.success();
+        }
+        try (HubVaultUnlockTrace.Span span = trace.span("open")) {
+            Thread.sleep(20L);
+            span.success();
+        }
+        traces.complete(trace, null);
+        // Ignored after completion
+        trace.span("sts").close();
+        final List<Map<String, Object>> records = trace.toRecords();
+        assertEquals(3, records.size());
+        final Map<String, Object> root = records.get(2);
+        assertEquals("unlock", root.get("name"));
+        assertFalse(root.containsKey("parentSpanId"));
+        assertEquals(root.get("spanId"), records.get(0).get("parentSpanId"));
+        assertEquals(root.get("traceId"), records.get(0).get("traceId"));
+        assertTrue((Long) root.get("endTimeUnixNano") >= (Long) root.get("startTimeUnixNano"));
+        assertEquals("STATUS_CODE_OK", ((Map<?, ?>) root.get("status")).get("code"));
+        assertEquals("STATUS_CODE_OK", ((Map<?, ?>) records.get(0).get("status")).get("code"));
+        assertNotNull(trace.toJSON());
+        final HubVaultUnlockTraces.Summary summary = traces.summary();
+        assertNotNull(summary);
+        assertEquals(1, summary.getVaults());
+        assertEquals("open", new ArrayList<>(summary.getSteps().keySet()).get(0));
+        assertEquals(2, summary.getSteps().size());
+        assertNull(traces.summary());
+    }
+
+    @Test
+    void testNestedSpan() throws Exception {
+        final HubVaultUnlockTraces traces = new HubVaultUnlockTraces();
+        final HubVaultUnlockTrace trace = traces.start(UUID.randomUUID());
+        try (HubVaultUnlockTrace.Span open = trace.span("open")) {
+            try (HubVaultUnlockTrace.Span sts = trace.span("sts", open)) {
+                Thread.sleep(5L);
+                sts.success();
+            }
+            open.success();
+        }
+        traces.complete(trace, null);
+        final List<Map<String, Object>> records = trace.toRecords();
+        assertEquals(3, records.size());
+        // Nested span completed first
+        assertEquals("sts", records.get(0).get("name"));
+        assertEquals(records.get(1).get("spanId"), records.get(0).get("parentSpanId"));
+        assertEquals(records.get(2).get("spanId"), records.get(1).get("parentSpanId"));
+        final HubVaultUnlockTraces.Summary summary = traces.summary();
+        assertNotNull(summary);
+        // Time of nested span only counted in step
+        assertEquals(1, summary.getSteps().size());
+        assertTrue(summary.getSteps().containsKey("open"));
+    }
+
+    @Test
+    void testFailedStep() {
+        final HubVaultUnlockTraces traces = new HubVaultUnlockTraces();
+        final HubVaultUnlockTrace trace = traces.start(UUID.randomUUID());
+        try (HubVaultUnlockTrace.Span span = trace.span("user-keys")) {
+            span.success();
+        }
+        try (HubVaultUnlockTrace.Span ignored = trace.span("access-token")) {
+            // Closed without success when step throws
+        }
+        traces.complete(trace, new IllegalStateException("denied"));
+        final List<Map<String, Object>> records = trace.toRecords();
+        assertEquals("STATUS_CODE_OK", ((Map<?, ?>) records.get(0).get("status")).get("code"));
+        final Map<?, ?> failed = (Map<?, ?>) records.get(1).get("status");
+        assertEquals("STATUS_CODE_ERROR", failed.get("code"));
+        assertEquals("denied", failed.get("message"));
+        assertEquals("STATUS_CODE_ERROR", ((Map<?, ?>) records.get(2).get("status")).get("code"));
+    }
+}
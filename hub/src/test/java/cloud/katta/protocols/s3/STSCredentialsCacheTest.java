@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.s3;
+
+import ch.cyberduck.core.TemporaryAccessTokens;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class STSCredentialsCacheTest {
+
+    @Test
+    void testGetCached() throws Exception {
+        final STSCredentialsCache cache = new STSCredentialsCache(UUID.randomUUID(), 300000L);
+        final AtomicInteger count = new AtomicInteger();
+        final STSCredentialsCache.Loader loader = () -> {
+            count.incrementAndGet();
+            return new TemporaryAccessTokens("a", "s", "t", System.currentTimeMillis() + 3600000L);
+        };
+        final TemporaryAccessTokens tokens = cache.get(loader);
+        assertSame(tokens, cache.get(loader));
+        assertEquals(1, count.get());
+        cache.invalidate();
+        cache.get(loader);
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    void testGetExpiring() throws Exception {
+        final STSCredentialsCache cache = new STSCredentialsCache(UUID.randomUUID(), 300000L);
+        final AtomicInteger count = new AtomicInteger();
+        final STSCredentialsCache.Loader loader = () -> {
+            count.incrementAndGet();
+            return new TemporaryAccessTokens("a", "s", "t", System.currentTimeMillis() + 1000L);
+        };
+        cache.get(loader);
+        cache.get(loader);
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    void testInvalidateInflight() throws Exception {
+        final STSCredentialsCache cache = new STSCredentialsCache(UUID.randomUUID(), 300000L);
+        final AtomicInteger count = new AtomicInteger();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final STSCredentialsCache.Loader loader = () -> {
+            if(count.incrementAndGet() == 1) {
+                entered.countDown();
+                try {
+                    release.await();
+                }
+                catch(InterruptedException e) {
+                    throw new ConnectionCanceledException(e);
+                }
+            }
+            return new TemporaryAccessTokens("a", "s", "t", System.currentTimeMillis() + 3600000L);
+        };
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<TemporaryAccessTokens> future = executor.submit(() -> cache.get(loader));
+            entered.await();
+            // Closed while request for credentials is in-flight
+            cache.invalidate();
+            release.countDown();
+            final TemporaryAccessTokens tokens = future.get();
+            // Handed out to caller but not cached
+            assertNotSame(tokens, cache.get(loader));
+            assertEquals(2, count.get());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testCoalesceConcurrent() throws Exception {
+        final STSCredentialsCache cache = new STSCredentialsCache(UUID.randomUUID(), 300000L);
+        final AtomicInteger count = new AtomicInteger();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final STSCredentialsCache.Loader loader = () -> {
+            count.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await();
+            }
+            catch(InterruptedException e) {
+                throw new ConnectionCanceledException(e);
+            }
+            return new TemporaryAccessTokens("a", "s", "t", System.currentTimeMillis() + 3600000L);
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<TemporaryAccessTokens>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> cache.get(loader)));
+            entered.await();
+            final List<Thread> followers = new CopyOnWriteArrayList<>();
+            for(int i = 0; i < 3; i++) {
+                futures.add(executor.submit(() -> {
+                    followers.add(Thread.currentThread());
+                    return cache.get(loader);
+                }));
+            }
+            // Release only when all followers are blocked on in-flight request or in loader without coalescing
+            for(int i = 0; i < 500 && !isWaiting(followers, 3); i++) {
+                Thread.sleep(10L);
+            }
+            assertTrue(isWaiting(followers, 3));
+            release.countDown();
+            final TemporaryAccessTokens tokens = futures.get(0).get();
+            for(Future<TemporaryAccessTokens> future : futures) {
+                assertSame(tokens, future.get());
+            }
+            assertEquals(1, count.get());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean isWaiting(final List<Thread> threads, final int count) {
+        if(threads.size() < count) {
+            return false;
+        }
+        for(Thread thread : threads) {
+            if(thread.getState() != Thread.State.WAITING) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
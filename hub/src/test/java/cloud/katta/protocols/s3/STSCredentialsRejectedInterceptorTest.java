@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.protocols.s3;
+
+import ch.cyberduck.core.TemporaryAccessTokens;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class STSCredentialsRejectedInterceptorTest {
+
+    private static final String EXPIRED = "<Error><Code>ExpiredToken</Code><Message>The provided token has expired.</Message></Error>";
+
+    @Test
+    void testInvalidateForbidden() throws Exception {
+        for(String code : new String[]{"ExpiredToken", "InvalidToken", "InvalidAccessKeyId", "SignatureDoesNotMatch"}) {
+            final STSCredentialsCache cache = new STSCredentialsCache(UUID.randomUUID(), 300000L);
+            final AtomicInteger count = new AtomicInteger();
+            final STSCredentialsCache.Loader loader = loader(count);
+            cache.get(loader);
+            final String body = String.format("<Error><Code>%s</Code></Error>", code);
+            final HttpResponse response = response(HttpStatus.SC_FORBIDDEN, body);
+            new STSCredentialsRejectedInterceptor(cache).process(response, new BasicHttpContext());
+            cache.get(loader);
+            assertEquals(2, count.get(), code);
+            // Error document still readable
+            assertEquals(body, EntityUtils.toString(response.getEntity()));
+        }
+    }
+
+    @Test
+    void testKeepAccessDenied() throws Exception {
+        final STSCredentialsCache cache = new STSCredentialsCache(UUID.randomUUID(), 300000L);
+        final AtomicInteger count = new AtomicInteger();
+        final STSCredentialsCache.Loader loader = loader(count);
+        cache.get(loader);
+        final STSCredentialsRejectedInterceptor interceptor = new STSCredentialsRejectedInterceptor(cache);
+        final String body = "<Error><Code>AccessDenied</Code><Message>Access Denied</Message></Error>";
+        final HttpResponse response = response(HttpStatus.SC_FORBIDDEN, body);
+        interceptor.process(response, new BasicHttpContext());
+        // No error document
+        interceptor.process(response(HttpStatus.SC_FORBIDDEN, null), new BasicHttpContext());
+        cache.get(loader);
+        assertEquals(1, count.get());
+        assertEquals(body, EntityUtils.toString(response.getEntity()));
+    }
+
+    @Test
+    void testInvalidateExpiredToken() throws Exception {
+        final STSCredentialsCache cache = new STSCredentialsCache(UUID.randomUUID(), 300000L);
+        final AtomicInteger count = new AtomicInteger();
+        final STSCredentialsCache.Loader loader = loader(count);
+        cache.get(loader);
+        final HttpResponse response = response(HttpStatus.SC_BAD_REQUEST, EXPIRED);
+        new STSCredentialsRejectedInterceptor(cache).process(response, new BasicHttpContext());
+        cache.get(loader);
+        assertEquals(2, count.get());
+        // Error document still readable
+        assertEquals(EXPIRED, EntityUtils.toString(response.getEntity()));
+    }
+
+    @Test
+    void testKeepOtherFailure() throws Exception {
+        final STSCredentialsCache cache = new STSCredentialsCache(UUID.randomUUID(), 300000L);
+        final AtomicInteger count = new AtomicInteger();
+        final STSCredentialsCache.Loader loader = loader(count);
+        cache.get(loader);
+        final STSCredentialsRejectedInterceptor interceptor = new STSCredentialsRejectedInterceptor(cache);
+        interceptor.process(response(HttpStatus.SC_BAD_REQUEST, "<Error><Code>InvalidArgument</Code></Error>"), new BasicHttpContext());
+        interceptor.process(response(HttpStatus.SC_NOT_FOUND, null), new BasicHttpContext());
+        interceptor.process(response(HttpStatus.SC_OK, null), new BasicHttpContext());
+        cache.get(loader);
+        assertEquals(1, count.get());
+    }
+
+    private static STSCredentialsCache.Loader loader(final AtomicInteger count) {
+        return () -> {
+            count.incrementAndGet();
+            return new TemporaryAccessTokens("a", "s", "t", System.currentTimeMillis() + 3600000L);
+        };
+    }
+
+    private static HttpResponse response(final int status, final String body) throws Exception {
+        final HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, status, null);
+        if(body != null) {
+            response.setEntity(new StringEntity(body));
+        }
+        return response;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2026 shift7 GmbH. All rights reserved.
+ */
+
+package cloud.katta.workflows;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import cloud.katta.client.model.UserDto;
+import cloud.katta.crypto.UserKeys;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class CachingWoTServiceTest {
+
+    @Test
+    void testSnapshot() throws Exception {
+        final WoTService proxy = mock(WoTService.class);
+        final UserKeys alice = UserKeys.create();
+        final String bob = UUID.randomUUID().toString();
+        when(proxy.getTrustLevelsPerUserId(any())).thenReturn(Collections.singletonMap(bob, 1));
+        final CachingWoTService service = new CachingWoTService(proxy, 60000L);
+        assertEquals(Collections.singletonMap(bob, 1), service.getTrustLevelsPerUserId(alice));
+        assertEquals(Collections.singletonMap(bob, 1), service.getTrustLevelsPerUserId(alice));
+        verify(proxy, times(1)).getTrustLevelsPerUserId(any());
+        // Different signer
+        service.getTrustLevelsPerUserId(UserKeys.create());
+        verify(proxy, times(2)).getTrustLevelsPerUserId(any());
+    }
+
+    @Test
+    void testInvalidateOnSign() throws Exception {
+        final WoTService proxy = mock(WoTService.class);
+        final UserKeys alice = UserKeys.create();
+        when(proxy.getTrustLevelsPerUserId(any())).thenReturn(Collections.emptyMap());
+        final CachingWoTService service = new CachingWoTService(proxy, 60000L);
+        service.getTrustLevelsPerUserId(alice);
+        service.sign(alice, new UserDto().id(UUID.randomUUID().toString()));
+        service.getTrustLevelsPerUserId(alice);
+        verify(proxy, times(2)).getTrustLevelsPerUserId(any());
+    }
+
+    @Test
+    void testExpired() throws Exception {
+        final WoTService proxy = mock(WoTService.class);
+        final UserKeys alice = UserKeys.create();
+        when(proxy.getTrustLevelsPerUserId(any())).thenReturn(Collections.emptyMap());
+        final CachingWoTService service = new CachingWoTService(proxy, -1L);
+        service.getTrustLevelsPerUserId(alice);
+        service.getTrustLevelsPerUserId(alice);
+        verify(proxy, times(2)).getTrustLevelsPerUserId(any());
+    }
+}
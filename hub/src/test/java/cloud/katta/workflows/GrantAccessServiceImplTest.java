@@ -4,12 +4,22 @@
 
 package cloud.katta.workflows;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
+import cloud.katta.client.ApiException;
 import cloud.katta.client.api.VaultResourceApi;
 import cloud.katta.client.model.MemberDto;
 import cloud.katta.client.model.VaultDto;
@@ -21,6 +31,7 @@ import cloud.katta.crypto.uvf.VaultMetadataAutomaticAccessGrantDto;
 import cloud.katta.protocols.hub.HubVaultMetadataUVFProvider;
 import com.nimbusds.jose.JWEObjectJSON;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -62,4 +73,40 @@ class GrantAccessServiceImplTest {
         grantAccessService.grantAccessToUsersRequiringAccessGrant(vaultId, aliceKeys);
         verify(vaults, times(expectedNumberOfUploads)).apiVaultsVaultIdAccessTokensPost(eq(vaultId), any());
     }
+
+    @Test
+    void testGrantAccessChunked() throws Exception {
+        final VaultResourceApi vaults = mock(VaultResourceApi.class);
+        final VaultService vaultServiceMock = mock(VaultService.class);
+        final UUID vaultId = UUID.randomUUID();
+        final UserKeys aliceKeys = UserKeys.create();
+        final List<MemberDto> users = new ArrayList<>();
+        for(int i = 0; i < 5; i++) {
+            users.add(new MemberDto()
+                    .id(UUID.randomUUID().toString())
+                    .ecdhPublicKey(UserKeys.create().encodedEcdhPublicKey()));
+        }
+        when(vaults.apiVaultsVaultIdUsersRequiringAccessGrantGet(vaultId)).thenReturn(users);
+        final HubVaultKeys vaultKeys = HubVaultKeys.create();
+        when(vaultServiceMock.getVaultAccessToken(vaultId, aliceKeys)).thenReturn(new UVFAccessTokenPayload(vaultKeys.memberKey()));
+        when(vaultServiceMock.getVaultMetadata(vaultId)).thenReturn(
+                JWEObjectJSON.parse(new HubVaultMetadataUVFProvider(new UVFMetadataPayload()
+                        .withAutomaticAccessGrant(new VaultMetadataAutomaticAccessGrantDto().enabled(true).trustThreshold(-1)),
+                        "apiUrl", vaultId, vaultKeys.serialize()).encrypt()));
+        // First upload fails with server error and is retried
+        doThrow(new ApiException(503, "Service Unavailable")).doAnswer(invocation -> null).when(vaults).apiVaultsVaultIdAccessTokensPost(eq(vaultId), any());
+        final GrantAccessServiceImpl grantAccessService = new GrantAccessServiceImpl(vaults, vaultServiceMock, mock(WoTService.class),
+                ForkJoinPool.commonPool(), 2);
+        grantAccessService.grantAccessToUsersRequiringAccessGrant(vaultId, aliceKeys);
+        final ArgumentCaptor<Map<String, String>> captor = tokens();
+        verify(vaults, times(4)).apiVaultsVaultIdAccessTokensPost(eq(vaultId), captor.capture());
+        final Set<String> uploaded = new HashSet<>();
+        captor.getAllValues().subList(1, 4).forEach(part -> uploaded.addAll(part.keySet()));
+        assertEquals(users.stream().map(MemberDto::getId).collect(Collectors.toSet()), uploaded);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<Map<String, String>> tokens() {
+        return ArgumentCaptor.forClass((Class<Map<String, String>>) (Class<?>) Map.class);
+    }
 }
@@ -9,17 +9,21 @@ import org.mockito.Mockito;
 
 import java.util.UUID;
 
+import cloud.katta.client.ApiException;
 import cloud.katta.client.api.VaultResourceApi;
 import cloud.katta.client.model.VaultDto;
 import cloud.katta.crypto.UserKeys;
 import cloud.katta.crypto.uvf.HubVaultKeys;
 import cloud.katta.crypto.uvf.UVFAccessTokenPayload;
+import cloud.katta.protocols.hub.HubAccessTokenCache;
 import cloud.katta.workflows.exceptions.SecurityFailure;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class VaultServiceImplTest {
@@ -73,4 +77,25 @@ class VaultServiceImplTest {
 
         assertThrows(SecurityFailure.class, () -> service.getVaultAccessToken(vaultId, userKeys));
     }
+
+    @Test
+    void testGetVaultAccessTokenCached() throws Exception {
+        final VaultResourceApi vaultResourceMock = Mockito.mock(VaultResourceApi.class);
+        final VaultService service = new VaultServiceImpl(vaultResourceMock, new HubAccessTokenCache(60000L));
+
+        final UserKeys userKeys = UserKeys.create();
+        final HubVaultKeys jwks = HubVaultKeys.create();
+        final String accessToken = new UVFAccessTokenPayload(jwks.memberKey()).encryptForUser(userKeys.ecdhKeyPair().getPublic());
+
+        final UUID vaultId = UUID.randomUUID();
+        when(vaultResourceMock.apiVaultsVaultIdAccessTokenGet(eq(vaultId), any())).thenReturn(accessToken);
+        assertEquals(new UVFAccessTokenPayload(jwks.memberKey()), service.getVaultAccessToken(vaultId, userKeys));
+        assertEquals(new UVFAccessTokenPayload(jwks.memberKey()), service.getVaultAccessToken(vaultId, userKeys));
+        verify(vaultResourceMock, times(1)).apiVaultsVaultIdAccessTokenGet(eq(vaultId), any());
+        // Archived vault invalidates cached access token
+        when(vaultResourceMock.apiVaultsVaultIdUvfVaultUvfGet(vaultId)).thenThrow(new ApiException(410, "Gone"));
+        assertThrows(ApiException.class, () -> service.getVaultMetadata(vaultId));
+        service.getVaultAccessToken(vaultId, userKeys);
+        verify(vaultResourceMock, times(2)).apiVaultsVaultIdAccessTokenGet(eq(vaultId), any());
+    }
 }